@@ -0,0 +1,92 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Directory modification times of a clean working tree, similar to git's untracked cache.
+ * <p>
+ * Only directories with a changed modification time need to be scanned for untracked files on the next clean check.
+ */
+class CleanCheckSnapshot {
+
+    static final String DIRECTORY_PATH = "git-versioning";
+
+    private final String key;
+    private final long time;
+    private final Map<String, Long> directoryTimes;
+
+    /**
+     * @param key            identifies index paths and ignore rules the snapshot was taken with
+     * @param time           time the snapshot was started
+     * @param directoryTimes modification times by working tree relative directory path
+     */
+    CleanCheckSnapshot(String key, long time, Map<String, Long> directoryTimes) {
+        this.key = key;
+        this.time = time;
+        this.directoryTimes = directoryTimes;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    long getTime() {
+        return time;
+    }
+
+    Map<String, Long> getDirectoryTimes() {
+        return directoryTimes;
+    }
+
+    /**
+     * @param file snapshot file
+     * @return the snapshot or null if file does not exist or is not readable
+     * @throws IOException IOException
+     */
+    static CleanCheckSnapshot read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String key = reader.readLine();
+            String time = reader.readLine();
+            if (key == null || time == null) {
+                return null;
+            }
+            Map<String, Long> directoryTimes = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separatorIndex = line.indexOf('\t');
+                if (separatorIndex < 0) {
+                    return null;
+                }
+                directoryTimes.put(line.substring(separatorIndex + 1), Long.parseLong(line.substring(0, separatorIndex)));
+            }
+            return new CleanCheckSnapshot(key, Long.parseLong(time), directoryTimes);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * File is replaced atomically, concurrent readers never see a partially written snapshot.
+     *
+     * @param file snapshot file
+     * @throws IOException IOException
+     */
+    void write(File file) throws IOException {
+        FileUtil.writeAtomically(file, writer -> {
+            writer.write(key + "\n");
+            writer.write(time + "\n");
+            for (Map.Entry<String, Long> directoryTime : directoryTimes.entrySet()) {
+                if (directoryTime.getKey().indexOf('\n') >= 0) {
+                    throw new IOException("unsupported directory path " + directoryTime.getKey());
+                }
+                writer.write(directoryTime.getValue() + "\t" + directoryTime.getKey() + "\n");
+            }
+        });
+    }
+}
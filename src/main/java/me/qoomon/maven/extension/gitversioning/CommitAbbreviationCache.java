@@ -0,0 +1,97 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shortest unambiguous commit id abbreviations, persisted within the git directory.
+ * <p>
+ * Abbreviations are determined by {@link ObjectReader#abbreviate(org.eclipse.jgit.lib.AnyObjectId, int)}, which looks up
+ * the minimum length prefix once by binary search over all pack indexes and by the loose object fan-out directory,
+ * candidates are narrowed down in memory. Once determined, an abbreviation is kept for its commit,
+ * so versions of a commit do not change if colliding objects are added later on.
+ */
+final class CommitAbbreviationCache {
+
+    static final String FILE_NAME = "commit-abbrev";
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private CommitAbbreviationCache() {
+    }
+
+    /**
+     * @param repository the repository
+     * @param commit     the commit id
+     * @param minLength  min abbreviation length
+     * @return shortest unambiguous abbreviation of <code>commit</code>, not shorter than <code>minLength</code>
+     * @throws IOException IOException
+     */
+    static String get(Repository repository, String commit, int minLength) throws IOException {
+        if (!ObjectId.isId(commit)) {
+            return commit.length() <= minLength ? commit : commit.substring(0, minLength);
+        }
+
+        File cacheFile = new File(new File(repository.getDirectory(), CleanCheckSnapshot.DIRECTORY_PATH), FILE_NAME);
+        String entryKey = commit + " " + minLength;
+        Map<String, String> entries = read(cacheFile);
+        String abbreviation = entries.get(entryKey);
+        if (abbreviation != null) {
+            return abbreviation;
+        }
+
+        try (ObjectReader reader = repository.newObjectReader()) {
+            abbreviation = reader.abbreviate(ObjectId.fromString(commit), minLength).name();
+        }
+
+        entries.put(entryKey, abbreviation);
+        Iterator<String> entryKeys = entries.keySet().iterator();
+        while (entries.size() > MAX_ENTRIES) {
+            entryKeys.next();
+            entryKeys.remove();
+        }
+        try {
+            write(cacheFile, entries);
+        } catch (IOException e) {
+            // cache is optional e.g. read only git directory
+        }
+        return abbreviation;
+    }
+
+    /**
+     * @return abbreviations by commit and min length, oldest first
+     */
+    private static Map<String, String> read(File file) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (!file.isFile()) {
+            return entries;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separatorIndex = line.lastIndexOf(' ');
+                if (separatorIndex > 0) {
+                    entries.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // replaced concurrently
+        }
+        return entries;
+    }
+
+    private static void write(File file, Map<String, String> entries) throws IOException {
+        FileUtil.writeAtomically(file, writer -> {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue() + "\n");
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.api.GitVersioningFacts;
+import org.apache.maven.SessionScoped;
+import org.apache.maven.model.building.ModelProcessor;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Session scoped view of {@link VersioningModelProcessor} state, git repository data is only read on demand
+ * and shared with version resolution.
+ */
+@Named
+@SessionScoped
+public class DefaultGitVersioningFacts implements GitVersioningFacts {
+
+    private final VersioningModelProcessor versioningModelProcessor;
+
+    @Inject
+    public DefaultGitVersioningFacts(final ModelProcessor modelProcessor) {
+        this(modelProcessor instanceof VersioningModelProcessor ? (VersioningModelProcessor) modelProcessor : null);
+    }
+
+    DefaultGitVersioningFacts(final VersioningModelProcessor versioningModelProcessor) {
+        this.versioningModelProcessor = versioningModelProcessor;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return getGitVersionResolver() != null;
+    }
+
+    @Override
+    public String getCommit() throws IOException {
+        return getGitRepoData().getCommit();
+    }
+
+    @Override
+    public String getBranch() throws IOException {
+        return getGitRepoData().getBranch();
+    }
+
+    @Override
+    public List<String> getTags() throws IOException {
+        return getGitRepoData().getTags();
+    }
+
+    @Override
+    public String getProjectVersion(String groupId, String artifactId, String version) throws IOException {
+        if (!isEnabled()) {
+            return null;
+        }
+        return getProjectVersion(versioningModelProcessor.getMultiModuleProjectDirectory(), groupId, artifactId, version);
+    }
+
+    @Override
+    public String getProjectVersion(File projectDirectory, String groupId, String artifactId, String version) throws IOException {
+        if (!isEnabled()) {
+            return null;
+        }
+        return versioningModelProcessor.getProjectVersion(projectDirectory, new GAV(groupId, artifactId, version));
+    }
+
+    private GitVersionResolver getGitVersionResolver() {
+        return versioningModelProcessor != null ? versioningModelProcessor.getGitVersionResolver() : null;
+    }
+
+    private GitRepoData getGitRepoData() throws IOException {
+        final GitVersionResolver resolver = getGitVersionResolver();
+        if (resolver == null) {
+            throw new IllegalStateException("git versioning is not enabled");
+        }
+        return resolver.getGitRepoData(versioningModelProcessor.getMultiModuleProjectDirectory());
+    }
+}
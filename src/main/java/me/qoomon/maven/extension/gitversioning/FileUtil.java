@@ -0,0 +1,47 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+final class FileUtil {
+
+    static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private FileUtil() {
+    }
+
+    /**
+     * Content is written to a temp file within the directory of <code>file</code>, which then replaces <code>file</code>
+     * atomically if supported by the file system, so concurrent readers never see a partially written file.
+     * Parent directories are created if missing.
+     *
+     * @param file          file to write
+     * @param contentWriter writes content, UTF-8 encoded
+     * @throws IOException IOException
+     */
+    static void writeAtomically(File file, ContentWriter contentWriter) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        File tempFile = File.createTempFile(file.getName(), TEMP_FILE_SUFFIX, directory);
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))) {
+                contentWriter.write(writer);
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void write(Writer writer) throws IOException;
+    }
+}
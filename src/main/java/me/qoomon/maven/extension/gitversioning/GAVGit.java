@@ -14,15 +14,15 @@ public class GAVGit extends GAV {
         this.commitRefName = commitRefName;
     }
 
-    String getCommit() {
+    public String getCommit() {
         return commit;
     }
 
-    String getCommitRefType() {
+    public String getCommitRefType() {
         return commitRefType;
     }
 
-    String getCommitRefName() {
+    public String getCommitRefName() {
         return commitRefName;
     }
 }
\ No newline at end of file
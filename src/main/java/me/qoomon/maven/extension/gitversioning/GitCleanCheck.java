@@ -0,0 +1,444 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.IndexDiffFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Determines if a working tree is clean, equivalent to {@link org.eclipse.jgit.api.Status#isClean()},
+ * but stops at the first change found.
+ * <p>
+ * The index is read once and partitioned by directory, partitions are compared to the working tree in parallel.
+ * All partitions stop as soon as one of them finds a change or the calling thread is interrupted.
+ * Time budget phases are not interrupted, so an abandoned check runs until it is done, see {@link TimeBudget}.
+ * File content is only hashed if file stat data does not match index entry, see {@link IndexDiffFilter}.
+ * <p>
+ * If enabled, directory modification times of a clean working tree are stored as {@link CleanCheckSnapshot}.
+ * Following checks only stat index entries and scan directories with a changed modification time for untracked files.
+ */
+final class GitCleanCheck {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * partitions with more index entries are split into sub directory partitions
+     */
+    private static final int MIN_PARTITION_SPLIT_SIZE = 1000;
+
+    /**
+     * coarsest file system timestamp resolution (FAT),
+     * directories modified within this time before a snapshot was taken are always scanned again
+     */
+    private static final long TIMESTAMP_RESOLUTION = 2000;
+
+    private static final String SNAPSHOT_FORMAT_VERSION = "1";
+
+    /**
+     * @param repository the repository
+     * @param path            working tree relative directory path to check, empty string for the whole working tree
+     * @param snapshotEnabled true if a snapshot should be read and written within git directory
+     * @return true if there are neither staged nor unstaged changes, nor untracked files, within <code>path</code>
+     * @throws IOException IOException
+     */
+    static boolean isClean(Repository repository, String path, boolean snapshotEnabled) throws IOException {
+        final DirCache dirCache = repository.readDirCache();
+        if (dirCache.hasUnmergedPaths()) {
+            return false;
+        }
+        // build cache tree upfront, so it is only read by concurrent index iterators
+        dirCache.getCacheTree(true);
+
+        if (!isIndexClean(repository, dirCache, path)) {
+            return false;
+        }
+        if (!snapshotEnabled) {
+            return isWorkingTreeClean(repository, dirCache, path, new ConcurrentHashMap<>());
+        }
+
+        final File snapshotFile = snapshotFile(repository, path);
+        final String snapshotKey = snapshotKey(repository, dirCache, path);
+        final long snapshotTime = System.currentTimeMillis();
+        final CleanCheckSnapshot snapshot = CleanCheckSnapshot.read(snapshotFile);
+
+        final Map<String, Long> directoryTimes = new ConcurrentHashMap<>();
+        final boolean clean;
+        if (snapshot != null && snapshot.getKey().equals(snapshotKey)) {
+            directoryTimes.putAll(snapshot.getDirectoryTimes());
+            clean = isWorkingTreeClean(repository, dirCache, path, snapshot, directoryTimes);
+        } else {
+            clean = isWorkingTreeClean(repository, dirCache, path, directoryTimes);
+        }
+
+        if (clean) {
+            try {
+                new CleanCheckSnapshot(snapshotKey, snapshotTime, directoryTimes).write(snapshotFile);
+            } catch (IOException ignore) {
+                // snapshot is an optimization only, next check falls back to full working tree walk
+            }
+        }
+        return clean;
+    }
+
+    /**
+     * @return true if index matches HEAD commit within <code>path</code>, unchanged subtrees are skipped by index cache tree
+     */
+    private static boolean isIndexClean(Repository repository, DirCache dirCache, String path) throws IOException {
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) {
+                treeWalk.addTree(new EmptyTreeIterator());
+            } else {
+                try (RevWalk revWalk = new RevWalk(treeWalk.getObjectReader())) {
+                    treeWalk.addTree(revWalk.parseCommit(head).getTree());
+                }
+            }
+            treeWalk.addTree(new DirCacheIterator(dirCache));
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(path.isEmpty()
+                    ? TreeFilter.ANY_DIFF
+                    : AndTreeFilter.create(PathFilter.create(path), TreeFilter.ANY_DIFF));
+            return !treeWalk.next();
+        }
+    }
+
+    /**
+     * Full working tree walk, modification times of all walked directories are recorded to <code>directoryTimes</code>.
+     */
+    private static boolean isWorkingTreeClean(Repository repository, DirCache dirCache, String path,
+                                              Map<String, Long> directoryTimes) throws IOException {
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        if (POOL.getParallelism() == 1 || dirCache.getEntryCount() < MIN_PARTITION_SPLIT_SIZE) {
+            return isDirectoryClean(repository, dirCache, path, path, Collections.emptySet(), directoryTimes, stop);
+        }
+
+        final List<Callable<Boolean>> tasks = new LinkedList<>();
+        final int splitSize = Math.max(MIN_PARTITION_SPLIT_SIZE, dirCache.getEntryCount() / (POOL.getParallelism() * 4));
+        addPartitionTasks(repository, dirCache, path, path, splitSize, directoryTimes, stop, tasks);
+        return invokeAll(tasks, stop);
+    }
+
+    /**
+     * Incremental check based on <code>snapshot</code>.
+     * Index entries are compared to file stat data, only files with mismatching stat data are compared by content.
+     * Only directories with changed modification time are scanned for untracked files.
+     */
+    private static boolean isWorkingTreeClean(Repository repository, DirCache dirCache, String path, CleanCheckSnapshot snapshot,
+                                              Map<String, Long> directoryTimes) throws IOException {
+        if (!isTrackedFilesClean(repository, dirCache, path)) {
+            return false;
+        }
+
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        final Set<String> snapshotDirectories = snapshot.getDirectoryTimes().keySet();
+        final List<Callable<Boolean>> tasks = new LinkedList<>();
+        for (Map.Entry<String, Long> snapshotDirectoryTime : snapshot.getDirectoryTimes().entrySet()) {
+            final String dir = snapshotDirectoryTime.getKey();
+            final long snapshotDirModified = snapshotDirectoryTime.getValue();
+            final long dirModified = directoryTime(repository, dir);
+            if (dirModified == snapshotDirModified && snapshotDirModified + TIMESTAMP_RESOLUTION < snapshot.getTime()) {
+                continue;
+            }
+            if (dirModified < 0) {
+                directoryTimes.remove(dir);
+                continue;
+            }
+            // known sub directories are checked by their own task, if modified, new sub directories are walked completely
+            tasks.add(() -> isDirectoryClean(repository, dirCache, path, dir, snapshotDirectories, directoryTimes, stop));
+        }
+        if (tasks.size() == 1 || POOL.getParallelism() == 1) {
+            for (Callable<Boolean> task : tasks) {
+                if (!callTask(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return invokeAll(tasks, stop);
+    }
+
+    /**
+     * @return true if all index entries within <code>path</code> match their working tree file
+     */
+    private static boolean isTrackedFilesClean(Repository repository, DirCache dirCache, String path) throws IOException {
+        final Path workTree = repository.getWorkTree().toPath();
+        final long indexModified = repository.getIndexFile().lastModified();
+        final boolean supportsExecute = repository.getFS().supportsExecute();
+
+        final DirCacheEntry[] entries = path.isEmpty() ? entries(dirCache) : dirCache.getEntriesWithin(path);
+        final List<String> candidatePaths = Collections.synchronizedList(new ArrayList<>());
+        final int chunkSize = Math.max(MIN_PARTITION_SPLIT_SIZE, entries.length / (POOL.getParallelism() * 4) + 1);
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        final List<Callable<Boolean>> tasks = new LinkedList<>();
+        for (int chunkStart = 0; chunkStart < entries.length; chunkStart += chunkSize) {
+            final int fromIndex = chunkStart;
+            final int toIndex = Math.min(entries.length, chunkStart + chunkSize);
+            tasks.add(() -> {
+                for (int i = fromIndex; i < toIndex && !stop.get(); i++) {
+                    if (!isStatClean(workTree, entries[i], indexModified, supportsExecute)) {
+                        candidatePaths.add(entries[i].getPathString());
+                    }
+                }
+                return true;
+            });
+        }
+        if (tasks.size() == 1 || POOL.getParallelism() == 1) {
+            for (Callable<Boolean> task : tasks) {
+                callTask(task);
+            }
+        } else {
+            invokeAll(tasks, stop);
+        }
+
+        if (candidatePaths.isEmpty()) {
+            return true;
+        }
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            final int dirCacheIndex = treeWalk.addTree(new DirCacheIterator(dirCache));
+            final FileTreeIterator workingTreeIterator = new FileTreeIterator(repository);
+            final int workingTreeIndex = treeWalk.addTree(workingTreeIterator);
+            workingTreeIterator.setDirCacheIterator(treeWalk, dirCacheIndex);
+            treeWalk.setFilter(AndTreeFilter.create(
+                    PathFilterGroup.createFromStrings(candidatePaths),
+                    new IndexDiffFilter(dirCacheIndex, workingTreeIndex)));
+            treeWalk.setRecursive(true);
+            return !treeWalk.next();
+        }
+    }
+
+    /**
+     * @return true if file stat data matches <code>entry</code> and entry is not racily clean
+     */
+    private static boolean isStatClean(Path workTree, DirCacheEntry entry, long indexModified, boolean supportsExecute) {
+        final FileMode fileMode = entry.getFileMode();
+        if (fileMode != FileMode.REGULAR_FILE && fileMode != FileMode.EXECUTABLE_FILE) {
+            return false;
+        }
+        if (entry.isSmudged() || entry.getLastModified() >= indexModified) {
+            return false;
+        }
+        final Path file = workTree.resolve(entry.getPathString());
+        final BasicFileAttributes attributes;
+        try {
+            attributes = supportsExecute
+                    ? Files.readAttributes(file, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                    : Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+        if (!attributes.isRegularFile()
+                || attributes.lastModifiedTime().toMillis() != entry.getLastModified()
+                || (int) attributes.size() != entry.getLength()) {
+            return false;
+        }
+        return !supportsExecute || (fileMode == FileMode.EXECUTABLE_FILE)
+                == ((PosixFileAttributes) attributes).permissions().contains(PosixFilePermission.OWNER_EXECUTE);
+    }
+
+    /**
+     * Adds a task for every directory below <code>dir</code> containing index entries
+     * and one task for everything else directly within <code>dir</code> e.g. files and untracked directories.
+     */
+    private static void addPartitionTasks(Repository repository, DirCache dirCache, String path, String dir, int splitSize,
+                                          Map<String, Long> directoryTimes, AtomicBoolean stop,
+                                          List<Callable<Boolean>> tasks) {
+        final String dirPrefix = dir.isEmpty() ? "" : dir + "/";
+        final Map<String, Integer> subDirEntryCounts = new TreeMap<>();
+        for (DirCacheEntry entry : dir.isEmpty() ? entries(dirCache) : dirCache.getEntriesWithin(dir)) {
+            final String entryPath = entry.getPathString();
+            final int subDirEnd = entryPath.indexOf('/', dirPrefix.length());
+            if (subDirEnd >= 0) {
+                subDirEntryCounts.merge(entryPath.substring(0, subDirEnd), 1, Integer::sum);
+            }
+        }
+
+        for (Map.Entry<String, Integer> subDirEntryCount : subDirEntryCounts.entrySet()) {
+            final String subDir = subDirEntryCount.getKey();
+            if (subDirEntryCount.getValue() > splitSize) {
+                addPartitionTasks(repository, dirCache, path, subDir, splitSize, directoryTimes, stop, tasks);
+            } else {
+                tasks.add(() -> isDirectoryClean(repository, dirCache, path, subDir, Collections.emptySet(), directoryTimes, stop));
+            }
+        }
+        tasks.add(() -> isDirectoryClean(repository, dirCache, path, dir, subDirEntryCounts.keySet(), directoryTimes, stop));
+    }
+
+    /**
+     * @param path           working tree relative directory path of the whole check
+     * @param dir            working tree relative directory path, within <code>path</code>
+     * @param excludedDirs   sub directories of <code>dir</code> that are checked by other tasks
+     * @param directoryTimes modification times of walked directories
+     * @param stop           shared state of all tasks, set as soon as a change is found or the check is interrupted
+     * @return true if there are no changes within <code>dir</code>
+     */
+    private static boolean isDirectoryClean(Repository repository, DirCache dirCache, String path, String dir, Set<String> excludedDirs,
+                                            Map<String, Long> directoryTimes, AtomicBoolean stop) throws IOException {
+        if (stop.get()) {
+            return false;
+        }
+        directoryTimes.put(dir, directoryTime(repository, dir));
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            final int dirCacheIndex = treeWalk.addTree(new DirCacheIterator(dirCache));
+            final FileTreeIterator workingTreeIterator = new FileTreeIterator(repository);
+            final int workingTreeIndex = treeWalk.addTree(workingTreeIterator);
+            workingTreeIterator.setDirCacheIterator(treeWalk, dirCacheIndex);
+            final TreeFilter indexDiffFilter = new IndexDiffFilter(dirCacheIndex, workingTreeIndex);
+            treeWalk.setFilter(dir.isEmpty() ? indexDiffFilter : AndTreeFilter.create(PathFilter.create(dir), indexDiffFilter));
+            treeWalk.setRecursive(false);
+
+            final String dirPrefix = dir.isEmpty() ? "" : dir + "/";
+            while (treeWalk.next()) {
+                if (stop.get()) {
+                    return false;
+                }
+                if (!treeWalk.isSubtree()) {
+                    // index diff filter only passes files that differ from index
+                    stop.set(true);
+                    return false;
+                }
+                final String subtreePath = treeWalk.getPathString();
+                if (subtreePath.startsWith(dirPrefix)) {
+                    if (excludedDirs.contains(subtreePath)) {
+                        continue;
+                    }
+                    directoryTimes.put(subtreePath, directoryTime(repository, subtreePath));
+                }
+                // parent directories of dir are entered, but not recorded
+                treeWalk.enterSubtree();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Results are awaited interruptibly, the first unclean result or an interruption stops all remaining tasks.
+     * {@link ForkJoinPool#invokeAll(java.util.Collection)} would wait uninterruptibly for all tasks instead.
+     */
+    private static boolean invokeAll(List<Callable<Boolean>> tasks, AtomicBoolean stop) throws IOException {
+        final List<Future<Boolean>> results = new ArrayList<>(tasks.size());
+        for (Callable<Boolean> task : tasks) {
+            results.add(POOL.submit(task));
+        }
+        try {
+            for (Future<Boolean> result : results) {
+                if (!result.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("working tree status check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            // running tasks check stop flag, tasks not started yet are not run at all
+            stop.set(true);
+            for (Future<Boolean> result : results) {
+                result.cancel(false);
+            }
+        }
+    }
+
+    private static boolean callTask(Callable<Boolean> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return last modified time of working tree directory or -1 if directory does not exist
+     */
+    private static long directoryTime(Repository repository, String dir) {
+        try {
+            return Files.getLastModifiedTime(new File(repository.getWorkTree(), dir).toPath(), LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static File snapshotFile(Repository repository, String path) {
+        String fileName = "clean-check";
+        if (!path.isEmpty()) {
+            fileName += "-" + StringUtil.sha1(path).substring(0, 12);
+        }
+        return new File(new File(WorktreeRepository.getWorktreeGitDir(repository), CleanCheckSnapshot.DIRECTORY_PATH), fileName);
+    }
+
+    /**
+     * Linked worktrees share <code>info/exclude</code> of the common git directory, like git does,
+     * {@link FileTreeIterator} reads it from {@link Repository#getDirectory()}, see {@link WorktreeRepository}.
+     */
+    private static File infoExcludeFile(Repository repository) {
+        return new File(repository.getDirectory(), Constants.INFO_EXCLUDE);
+    }
+
+    /**
+     * A snapshot is only valid for the same tracked paths and the same ignore rules.
+     */
+    private static String snapshotKey(Repository repository, DirCache dirCache, String path) {
+        final StringBuilder key = new StringBuilder(SNAPSHOT_FORMAT_VERSION)
+                .append('\0').append(repository.getWorkTree().getAbsolutePath())
+                .append('\0').append(path)
+                .append('\0').append(infoExcludeFile(repository).lastModified());
+        final String excludesFile = repository.getConfig()
+                .getString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_KEY_EXCLUDESFILE);
+        if (excludesFile != null) {
+            final File file = excludesFile.startsWith("~/")
+                    ? new File(repository.getFS().userHome(), excludesFile.substring(2))
+                    : repository.getFS().resolve(null, excludesFile);
+            key.append('\0').append(file.lastModified());
+        }
+        for (int i = 0; i < dirCache.getEntryCount(); i++) {
+            final DirCacheEntry entry = dirCache.getEntry(i);
+            key.append('\0').append(entry.getPathString());
+            // committed ignore rules may un-ignore directories without changing any directory modification time
+            if (entry.getPathString().endsWith(Constants.DOT_GIT_IGNORE)) {
+                key.append(' ').append(entry.getObjectId().getName());
+            }
+        }
+        return StringUtil.sha1(key.toString());
+    }
+
+    private static DirCacheEntry[] entries(DirCache dirCache) {
+        final DirCacheEntry[] entries = new DirCacheEntry[dirCache.getEntryCount()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = dirCache.getEntry(i);
+        }
+        return entries;
+    }
+}
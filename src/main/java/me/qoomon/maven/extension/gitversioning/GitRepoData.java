@@ -0,0 +1,56 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfiguration;
+
+import java.util.List;
+
+/**
+ * Git state of a repository, relevant for versioning.
+ */
+public class GitRepoData {
+
+    private final String commit;
+    private final String branch;
+    private final List<String> tags;
+    private final Long commitTime;
+    private final boolean complete;
+
+    GitRepoData(String commit, String branch, List<String> tags, Long commitTime) {
+        this(commit, branch, tags, commitTime, true);
+    }
+
+    GitRepoData(String commit, String branch, List<String> tags, Long commitTime, boolean complete) {
+
+        this.commit = commit;
+        this.branch = branch;
+        this.tags = tags;
+        this.commitTime = commitTime;
+        this.complete = complete;
+    }
+
+    public String getCommit() {
+        return commit;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return commit time in seconds since epoch or null if commit is not present in repository
+     */
+    public Long getCommitTime() {
+        return commitTime;
+    }
+
+    /**
+     * @return false if tags could not be read within time budget, see {@link VersioningConfiguration#getTimeBudget()}
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,105 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositories and ref indexes, shared per common git directory by all caches of this JVM,
+ * e.g. by concurrent builds of different worktrees within one maven daemon.
+ * <p>
+ * The main worktree and all linked worktrees of a git repository share one object database and one ref database,
+ * see {@link WorktreeRepository}, so pack indexes and packed refs are read once.
+ * Repositories handed out are closed by their users. A shared repository is used by every cache it was opened by,
+ * until that cache is closed, and is closed as soon as it is not used by any cache and user anymore.
+ */
+final class GitRepositoryCache implements AutoCloseable {
+
+    private static final Map<File, SharedRepository> SHARED_REPOSITORIES = new ConcurrentHashMap<>();
+
+    private final Set<File> commonDirs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param dir a directory within a git repository
+     * @return the repository of <code>dir</code>
+     * @throws IOException IOException
+     */
+    Repository openRepository(File dir) throws IOException {
+        final FileRepositoryBuilder repositoryBuilder = new FileRepositoryBuilder().findGitDir(dir);
+        final File gitDir = repositoryBuilder.getGitDir();
+        if (gitDir == null) {
+            return repositoryBuilder.build();
+        }
+        final File commonDir = WorktreeRepository.getCommonDir(gitDir);
+        if (commonDir != null) {
+            return WorktreeRepository.open(gitDir, commonRepository(commonDir));
+        }
+        final Repository repository = commonRepository(gitDir.getCanonicalFile());
+        repository.incrementOpen();
+        return repository;
+    }
+
+    /**
+     * Index is reused as long as no ref of the git directory has changed.
+     *
+     * @param repository the repository
+     * @return index of all non symbolic refs of <code>repository</code>
+     * @throws IOException IOException
+     */
+    RefIndex getRefIndex(Repository repository) throws IOException {
+        final SharedRepository sharedRepository = SHARED_REPOSITORIES.get(repository.getDirectory());
+        if (sharedRepository == null) {
+            return RefIndex.build(repository);
+        }
+        final RefIndex refIndex = RefIndex.build(repository, sharedRepository.refIndex);
+        sharedRepository.refIndex = refIndex;
+        return refIndex;
+    }
+
+    private Repository commonRepository(File commonDir) throws IOException {
+        synchronized (SHARED_REPOSITORIES) {
+            SharedRepository sharedRepository = SHARED_REPOSITORIES.get(commonDir);
+            if (sharedRepository == null) {
+                sharedRepository = new SharedRepository(new FileRepositoryBuilder().setGitDir(commonDir).setMustExist(true).build());
+                SHARED_REPOSITORIES.put(commonDir, sharedRepository);
+            }
+            if (commonDirs.add(commonDir)) {
+                sharedRepository.cacheCount++;
+            }
+            return sharedRepository.repository;
+        }
+    }
+
+    /**
+     * Releases shared repositories opened by this cache, repositories still in use are closed as soon as their users close them.
+     */
+    @Override
+    public void close() {
+        synchronized (SHARED_REPOSITORIES) {
+            for (File commonDir : commonDirs) {
+                final SharedRepository sharedRepository = SHARED_REPOSITORIES.get(commonDir);
+                if (--sharedRepository.cacheCount == 0) {
+                    SHARED_REPOSITORIES.remove(commonDir);
+                    sharedRepository.repository.close();
+                }
+            }
+            commonDirs.clear();
+        }
+    }
+
+    private static final class SharedRepository {
+
+        private final Repository repository;
+        private int cacheCount;
+        private volatile RefIndex refIndex;
+
+        private SharedRepository(Repository repository) {
+            this.repository = repository;
+        }
+    }
+}
@@ -1,27 +1,74 @@
 package me.qoomon.maven.extension.gitversioning;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.Status;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public final class GitUtil {
 
-    public static Status getStatus(Repository repository) {
-        try {
-            return Git.wrap(repository).status().call();
-        } catch (GitAPIException e) {
-            throw new RuntimeException(e);
+    /**
+     * Repositories of linked worktrees are read by {@link WorktreeRepository}, repositories are only shared
+     * with other users of the same git repository at the same time, see {@link GitRepositoryCache}.
+     *
+     * @param dir a directory within a git repository
+     * @return the repository of <code>dir</code>
+     * @throws IOException IOException
+     */
+    public static Repository openRepository(File dir) throws IOException {
+        try (GitRepositoryCache repositoryCache = new GitRepositoryCache()) {
+            return repositoryCache.openRepository(dir);
         }
     }
 
+    /**
+     * Stops at first change found, working tree directories are compared to index in parallel, see {@link GitCleanCheck}.
+     *
+     * @param repository the repository
+     * @param path       working tree relative directory path, see {@link #workTreePath(Repository, File)}
+     * @param snapshotEnabled true if directory modification times of a clean working tree should be stored within git directory,
+     *                        to speed up following checks
+     * @return true if there are no changes within <code>path</code>, same as {@link org.eclipse.jgit.api.Status#isClean()}
+     * @throws IOException IOException
+     */
+    public static boolean isClean(Repository repository, String path, boolean snapshotEnabled) throws IOException {
+        return GitCleanCheck.isClean(repository, path == null ? "" : path, snapshotEnabled);
+    }
+
+    /**
+     * @param repository the repository
+     * @param dir        a directory
+     * @return path of <code>dir</code> relative to working tree, empty string for working tree itself
+     * or null if <code>dir</code> is not within working tree
+     * @throws IOException IOException
+     */
+    public static String workTreePath(Repository repository, File dir) throws IOException {
+        if (repository.isBare()) {
+            return null;
+        }
+        Path workTree = repository.getWorkTree().getCanonicalFile().toPath();
+        Path path = dir.getCanonicalFile().toPath();
+        if (!path.startsWith(workTree)) {
+            return null;
+        }
+        return workTree.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
     public static String getHeadBranch(Repository repository) throws IOException {
 
         ObjectId head = repository.resolve(Constants.HEAD);
@@ -43,25 +90,15 @@ public final class GitUtil {
             return Collections.emptyList();
         }
 
-        return repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS).stream()
-                .map(ref -> {
-                    try {
-                        return repository.getRefDatabase().peel(ref);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .filter(ref -> {
-                    ObjectId objectId;
-                    if (ref.getPeeledObjectId() != null) {
-                        objectId = ref.getPeeledObjectId();
-                    } else {
-                        objectId = ref.getObjectId();
-                    }
-                    return objectId.equals(head);
-                })
-                .map(ref -> ref.getName().replaceFirst("^" + Constants.R_TAGS, ""))
-                .collect(Collectors.toList());
+        return RefIndex.build(repository).getNames(head, Constants.R_TAGS);
+    }
+
+    /**
+     * @param commit commit id, may be a provided commit shorter than 7 characters
+     * @return first 7 characters of <code>commit</code>
+     */
+    public static String shortCommit(String commit) {
+        return commit.length() <= 7 ? commit : commit.substring(0, 7);
     }
 
     public static String getHeadCommit(Repository repository) throws IOException {
@@ -72,4 +109,120 @@ public final class GitUtil {
         }
         return head.getName();
     }
+
+    /**
+     * @param repository the repository
+     * @param commit     the commit id
+     * @return commit time in seconds since epoch or null if <code>commit</code> is not a commit of the repository
+     * @throws IOException IOException
+     */
+    public static Long getCommitTime(Repository repository, String commit) throws IOException {
+        if (!ObjectId.isId(commit)) {
+            return null;
+        }
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            return (long) revWalk.parseCommit(ObjectId.fromString(commit)).getCommitTime();
+        } catch (MissingObjectException | IncorrectObjectTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Determines the latest commit that touched each of the given paths by one shared history walk, starting at HEAD.
+     *
+     * @param repository the repository
+     * @param paths      working tree relative paths, empty string for the whole working tree
+     * @return latest commit per path, paths that never existed are missing
+     * @throws IOException IOException
+     * @see #getLastCommits(Repository, ObjectId, Collection)
+     */
+    public static Map<String, RevCommit> getLastCommits(Repository repository, Collection<String> paths) throws IOException {
+        ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            return new HashMap<>();
+        }
+        return getLastCommits(repository, head, paths);
+    }
+
+    /**
+     * Determines the latest commit that touched each of the given paths by one shared history walk, starting at <code>start</code>.
+     * <p>
+     * Like <code>git log -1 -- PATH</code>, a merge commit only touches a path if it differs from all of its parents.
+     *
+     * @param repository the repository
+     * @param start      the commit to start history walk at
+     * @param paths      working tree relative paths, empty string for the whole working tree
+     * @return latest commit per path, paths that never existed are missing
+     * @throws IOException IOException
+     */
+    public static Map<String, RevCommit> getLastCommits(Repository repository, ObjectId start, Collection<String> paths) throws IOException {
+        Map<String, RevCommit> lastCommits = new HashMap<>();
+
+        Set<String> pendingPaths = new HashSet<>(paths);
+        try (RevWalk revWalk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+            revWalk.markStart(revWalk.parseCommit(start));
+            RevCommit commit;
+            while (!pendingPaths.isEmpty() && (commit = revWalk.next()) != null) {
+                Set<String> touchedPaths = null;
+                if (commit.getParentCount() == 0) {
+                    touchedPaths = getChangedPaths(treeWalk, commit.getTree(), null, pendingPaths);
+                }
+                for (RevCommit parent : commit.getParents()) {
+                    revWalk.parseHeaders(parent);
+                    Set<String> changedPaths = getChangedPaths(treeWalk, commit.getTree(), parent.getTree(), pendingPaths);
+                    if (touchedPaths == null) {
+                        touchedPaths = changedPaths;
+                    } else {
+                        touchedPaths.retainAll(changedPaths);
+                    }
+                }
+                for (String touchedPath : touchedPaths) {
+                    lastCommits.put(touchedPath, commit);
+                    pendingPaths.remove(touchedPath);
+                }
+            }
+        }
+        return lastCommits;
+    }
+
+    /**
+     * @return all of <code>paths</code> that differ between <code>tree</code> and <code>parentTree</code>,
+     * unchanged subtrees are not entered
+     */
+    private static Set<String> getChangedPaths(TreeWalk treeWalk, RevTree tree, RevTree parentTree, Set<String> paths) throws IOException {
+        Set<String> changedPaths = new HashSet<>();
+        if (parentTree != null && tree.equals(parentTree)) {
+            return changedPaths;
+        }
+        if (paths.contains("")) {
+            changedPaths.add("");
+        }
+
+        List<String> subPaths = paths.stream().filter(path -> !path.isEmpty()).collect(Collectors.toList());
+        if (subPaths.isEmpty()) {
+            return changedPaths;
+        }
+
+        treeWalk.reset();
+        treeWalk.setRecursive(false);
+        treeWalk.addTree(tree);
+        if (parentTree != null) {
+            treeWalk.addTree(parentTree);
+        } else {
+            treeWalk.addTree(new EmptyTreeIterator());
+        }
+        treeWalk.setFilter(AndTreeFilter.create(PathFilterGroup.createFromStrings(subPaths), TreeFilter.ANY_DIFF));
+        while (treeWalk.next()) {
+            String path = treeWalk.getPathString();
+            if (paths.contains(path)) {
+                changedPaths.add(path);
+            }
+            // enter subtree as long as there are nested paths to check
+            if (treeWalk.isSubtree() && subPaths.stream().anyMatch(subPath -> subPath.startsWith(path + "/"))) {
+                treeWalk.enterSubtree();
+            }
+        }
+        return changedPaths;
+    }
 }
@@ -0,0 +1,648 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfiguration;
+import me.qoomon.maven.extension.gitversioning.config.model.VersionFormatDescription;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static me.qoomon.maven.extension.gitversioning.StringUtil.*;
+
+/**
+ * Determines git based versions independent of a maven session.
+ * <p>
+ * Git repository data is read once per git directory, optionally in background, see {@link #prefetchModuleGitRepoData()}.
+ */
+public class GitVersionResolver {
+
+    private final Logger logger;
+    private final VersioningConfiguration configuration;
+    private final GitVersioningStatistics statistics;
+
+    private final Map<File, CompletableFuture<GitRepoData>> gitRepoDataCache = new ConcurrentHashMap<>();
+    private final Map<File, File> gitDirCache = new ConcurrentHashMap<>();
+    private final Map<File, RefContext> refContextCache = new ConcurrentHashMap<>();
+    private final GitRepositoryCache repositoryCache = new GitRepositoryCache();
+    private ExecutorService prefetchExecutor;
+    private final Map<File, Boolean> directoryCleanCache = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, RevCommit>> moduleCommitCache = new ConcurrentHashMap<>();
+    private final Map<File, Map<String, String>> commitAbbreviationCache = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Long>> commitTimeCache = new ConcurrentHashMap<>();
+
+    public GitVersionResolver(final Logger logger, final VersioningConfiguration configuration) {
+        this(logger, configuration, new GitVersioningStatistics());
+    }
+
+    GitVersionResolver(final Logger logger, final VersioningConfiguration configuration, final GitVersioningStatistics statistics) {
+        this.logger = logger;
+        this.configuration = configuration;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @param gav        the project GAV, as defined in pom file
+     * @param projectDir the project directory
+     * @return git based project GAV
+     * @throws IOException IOException
+     */
+    public GAVGit resolve(GAV gav, File projectDir) throws IOException {
+        final RefContext refContext = getRefContext(projectDir);
+
+        final Map<String, String> moduleVersionDataMap = buildCommonVersionDataMap(gav);
+        if (refContext.versionTemplate.hasPlaceholderPrefix("module.")) {
+            final RevCommit moduleCommit = getModuleCommit(projectDir);
+            final String moduleCommitId = moduleCommit != null ? moduleCommit.getName() : refContext.commit;
+            moduleVersionDataMap.put("module.commit", moduleCommitId);
+            moduleVersionDataMap.put("module.commit.short", GitUtil.shortCommit(moduleCommitId));
+            moduleVersionDataMap.put("module.commitTime", moduleCommit != null ? formatCommitTime(moduleCommit) : "");
+        }
+
+        // repository values take precedence over project version, module values take precedence over repository values
+        String versionGit = escapeVersion(refContext.versionTemplate.render(key -> {
+            final String value = key.startsWith("module.") ? null : refContext.versionDataMap.get(key);
+            return value != null ? value : moduleVersionDataMap.get(key);
+        }));
+        statistics.recordVersion(getGitDir(projectDir), versionGit);
+
+        return new GAVGit(
+                gav.getGroupId(),
+                gav.getArtifactId(),
+                versionGit,
+                refContext.commit,
+                refContext.commitRefType,
+                refContext.commitRefName
+        );
+    }
+
+    /**
+     * @param dir a directory within a git repository
+     * @return resolved ref context of git repository, determined once per git repository data
+     */
+    private RefContext getRefContext(File dir) throws IOException {
+        final GitRepoData gitRepoData = getGitRepoData(dir);
+        final File gitDir = getGitDir(dir);
+        RefContext refContext = refContextCache.get(gitDir);
+        if (refContext == null || refContext.gitRepoData != gitRepoData) {
+            refContext = resolveRefContext(gitRepoData, dir);
+            refContextCache.put(gitDir, refContext);
+        }
+        return refContext;
+    }
+
+    private RefContext resolveRefContext(GitRepoData gitRepoData, File dir) throws IOException {
+        // default versioning
+        String projectCommitRefType = "commit";
+        String projectCommitRefName = gitRepoData.getCommit();
+        VersionFormatDescription projectVersionFormatDescription = configuration.getCommitVersionDescription();
+
+        // branch versioning
+        String gitRepoBranch = gitRepoData.getBranch();
+        if (gitRepoBranch != null) {
+            for (VersionFormatDescription versionFormatDescription : configuration.getBranchVersionDescriptions()) {
+                if (GuardedPattern.compile(versionFormatDescription.pattern).matches(gitRepoBranch)) {
+                    projectCommitRefType = "branch";
+                    projectCommitRefName = gitRepoBranch;
+                    projectVersionFormatDescription = versionFormatDescription;
+                    break;
+                }
+            }
+        } else {
+            // tag versioning
+            List<String> gitRepoTags = gitRepoData.getTags();
+            if (!gitRepoTags.isEmpty()) {
+                for (VersionFormatDescription versionFormatDescription : configuration.getTagVersionDescriptions()) {
+                    GuardedPattern tagPattern = GuardedPattern.compile(versionFormatDescription.pattern);
+                    String gitRepoVersionTag = gitRepoTags.stream().sequential()
+                            .filter(tagPattern::matches)
+                            .max((tagLeft, tagRight) -> {
+                                String versionLeft = removePrefix(tagLeft, versionFormatDescription.prefix);
+                                String versionRight = removePrefix(tagRight, versionFormatDescription.prefix);
+                                DefaultArtifactVersion tagVersionLeft = new DefaultArtifactVersion(versionLeft);
+                                DefaultArtifactVersion tagVersionRight = new DefaultArtifactVersion(versionRight);
+                                return tagVersionLeft.compareTo(tagVersionRight);
+                            }).orElse(null);
+                    if (gitRepoVersionTag != null) {
+                        projectCommitRefType = "tag";
+                        projectCommitRefName = gitRepoVersionTag;
+                        projectVersionFormatDescription = versionFormatDescription;
+                        break;
+                    }
+                }
+            }
+        }
+
+        final VersionTemplate versionTemplate = VersionTemplate.compile(projectVersionFormatDescription.versionFormat);
+        final String commitRefName = removePrefix(projectCommitRefName, projectVersionFormatDescription.prefix);
+
+        Map<String, String> versionDataMap = new HashMap<>();
+        versionDataMap.put("commit", gitRepoData.getCommit());
+        versionDataMap.put("commit.short", GitUtil.shortCommit(gitRepoData.getCommit()));
+        if (versionTemplate.hasPlaceholder("commit.abbrev")) {
+            versionDataMap.put("commit.abbrev", getCommitAbbreviation(dir, gitRepoData.getCommit()));
+        }
+        final Long commitTime = gitRepoData.getCommitTime();
+        versionDataMap.put("commit.timestamp", commitTime != null ? String.valueOf(commitTime) : "");
+        versionDataMap.put("commit.date", commitTime != null ? formatCommitDate(commitTime) : "");
+        versionDataMap.put(projectCommitRefType, commitRefName);
+        versionDataMap.putAll(valueGroupMap(projectVersionFormatDescription.pattern, projectCommitRefName));
+
+        return new RefContext(gitRepoData, projectCommitRefType, commitRefName, versionTemplate, versionDataMap);
+    }
+
+    /**
+     * Matched version format and its values, everything of a project version that does not depend on the project.
+     */
+    private static final class RefContext {
+
+        private final GitRepoData gitRepoData;
+        private final String commit;
+        private final String commitRefType;
+        private final String commitRefName;
+        private final VersionTemplate versionTemplate;
+        private final Map<String, String> versionDataMap;
+
+        private RefContext(GitRepoData gitRepoData, String commitRefType, String commitRefName,
+                           VersionTemplate versionTemplate, Map<String, String> versionDataMap) {
+            this.gitRepoData = gitRepoData;
+            this.commit = gitRepoData.getCommit();
+            this.commitRefType = commitRefType;
+            this.commitRefName = commitRefName;
+            this.versionTemplate = versionTemplate;
+            this.versionDataMap = versionDataMap;
+        }
+    }
+
+    /**
+     * Starts reading git repository data in background, see {@link #getGitRepoData(File)}.
+     *
+     * @param dir a directory within a git repository
+     */
+    public void prefetchGitRepoData(File dir) throws IOException {
+        final File gitDir = getGitDir(dir);
+        if (gitDir == null) {
+            return;
+        }
+        final CompletableFuture<GitRepoData> gitRepoData = new CompletableFuture<>();
+        if (gitRepoDataCache.putIfAbsent(gitDir, gitRepoData) != null) {
+            return;
+        }
+        logger.debug("prefetch git repository data " + gitDir);
+        getPrefetchExecutor().execute(() -> completeGitRepoData(gitRepoData, dir));
+    }
+
+    /**
+     * Starts reading git repository data of all git repositories of the multi module project in background,
+     * distinct repositories e.g. git submodules are read concurrently.
+     * Module directories are determined in background as well.
+     */
+    public void prefetchModuleGitRepoData() throws IOException {
+        final File multiModuleProjectDirectory = configuration.getMultiModuleProjectDirectory();
+        prefetchGitRepoData(multiModuleProjectDirectory);
+        getPrefetchExecutor().execute(() -> {
+            try {
+                for (File moduleDir : collectModuleDirectories(multiModuleProjectDirectory)) {
+                    prefetchGitRepoData(moduleDir);
+                }
+            } catch (IOException | RuntimeException e) {
+                // modules are read on demand
+                logger.debug("could not prefetch git repository data of modules", e);
+            }
+        });
+    }
+
+    /**
+     * @param dir a directory within a git repository
+     * @return git repository data, provided commit, branch and tag take precedence over repository state
+     * @throws IOException IOException
+     */
+    public GitRepoData getGitRepoData(File dir) throws IOException {
+        final File gitDir = getGitDir(dir);
+        if (gitDir == null) {
+            throw new IOException("no git repository found for " + dir);
+        }
+        final long startNanos = statistics.gitRepoData.start();
+        CompletableFuture<GitRepoData> gitRepoData = gitRepoDataCache.get(gitDir);
+        if (gitRepoData == null) {
+            final CompletableFuture<GitRepoData> newGitRepoData = new CompletableFuture<>();
+            gitRepoData = gitRepoDataCache.putIfAbsent(gitDir, newGitRepoData);
+            if (gitRepoData == null) {
+                gitRepoData = newGitRepoData;
+                completeGitRepoData(gitRepoData, dir);
+            }
+        }
+        try {
+            return gitRepoData.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            statistics.gitRepoData.stop(startNanos);
+        }
+    }
+
+    /**
+     * @param dir a directory within a git repository
+     * @return canonical git directory or null if <code>dir</code> is not within a git repository
+     * @throws IOException IOException
+     */
+    File getGitDir(File dir) throws IOException {
+        File gitDir = gitDirCache.get(dir);
+        if (gitDir == null) {
+            gitDir = new FileRepositoryBuilder().findGitDir(dir).getGitDir();
+            if (gitDir == null) {
+                return null;
+            }
+            gitDir = gitDir.getCanonicalFile();
+            gitDirCache.put(dir, gitDir);
+        }
+        return gitDir;
+    }
+
+    private void completeGitRepoData(CompletableFuture<GitRepoData> gitRepoData, File dir) {
+        try {
+            gitRepoData.complete(loadGitRepoData(dir));
+        } catch (Throwable e) {
+            gitRepoData.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Releases git repositories shared since creation of this resolver, see {@link GitRepositoryCache}.
+     * Repositories are opened again on demand.
+     */
+    void closeRepositories() {
+        repositoryCache.close();
+    }
+
+    /**
+     * Bounded by available processors, threads are virtual threads on Java 21+ and terminate if idle.
+     */
+    private synchronized Executor getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            final int threadCount = Runtime.getRuntime().availableProcessors();
+            final ThreadFactory threadFactory = prefetchThreadFactory();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                    1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            prefetchExecutor = executor;
+        }
+        return prefetchExecutor;
+    }
+
+    private static ThreadFactory prefetchThreadFactory() {
+        try {
+            // Thread.ofVirtual().name(...).factory(), available since Java 21
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object namedBuilder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "git-versioning-prefetch-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                final Thread thread = new Thread(runnable, "git-versioning-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    private GitRepoData loadGitRepoData(File dir) throws IOException {
+        final TimeBudget timeBudget = TimeBudget.start(configuration.getTimeBudget());
+        try (Repository repository = repositoryCache.openRepository(dir)) {
+            logger.debug("git directory " + WorktreeRepository.getWorktreeGitDir(repository));
+            final GitRepoData gitRepoData = readGitRepoData(repository, timeBudget);
+
+            // status is limited to multi module project directory, if located within working tree
+            final String statusPath = GitUtil.workTreePath(repository, configuration.getMultiModuleProjectDirectory());
+            final Boolean clean = runPhase(timeBudget, "status", repository, phaseRepository -> GitUtil.isClean(phaseRepository, statusPath, configuration.isStatusSnapshotEnabled()), null);
+            if (clean != null && !clean) {
+                logger.warn("Git working tree is not clean " + WorktreeRepository.getWorktreeGitDir(repository)
+                        + (statusPath == null || statusPath.isEmpty() ? "" : " - " + statusPath));
+            }
+
+            if (timeBudget.isExceeded()) {
+                logger.warn("Git repository time budget of " + timeBudget.getBudgetMillis() + "ms exceeded " + WorktreeRepository.getWorktreeGitDir(repository)
+                        + " - " + (gitRepoData.isComplete() ? "working tree status is unknown" : "tags are ignored, working tree status is unknown")
+                        + " - " + timeBudget);
+            }
+            return gitRepoData;
+        }
+    }
+
+    /**
+     * Reads commit, branch and tags of HEAD, without caching and without working tree status check.
+     * <p>
+     * If HEAD is detached and branch inference is enabled, the branch is inferred from branches pointing to HEAD,
+     * unless a HEAD tag matches a tag version format.
+     *
+     * @param repository the repository
+     * @return git repository data, provided commit, branch and tag take precedence over repository state
+     * @throws IOException IOException
+     */
+    public GitRepoData readGitRepoData(Repository repository) throws IOException {
+        return readGitRepoData(repository, TimeBudget.start(0));
+    }
+
+    /**
+     * Tags are read within <code>timeBudget</code>, if it runs out commit and branch of HEAD are used without tags.
+     */
+    private GitRepoData readGitRepoData(Repository repository, TimeBudget timeBudget) throws IOException {
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        final RefIndex refIndex = head != null ? runPhase(timeBudget, "tags", repository, repositoryCache::getRefIndex, null) : null;
+        final boolean complete = head == null || refIndex != null;
+
+        String headCommit = GitUtil.getHeadCommit(repository);
+        final String providedCommit = configuration.getProvidedCommit();
+        if (providedCommit != null) {
+            headCommit = providedCommit;
+        }
+
+        List<String> headTags = refIndex != null ? refIndex.getNames(head, Constants.R_TAGS) : emptyList();
+        final String providedTag = configuration.getProvidedTag();
+        if (providedTag != null) {
+            headTags = providedTag.isEmpty() ? emptyList() : singletonList(providedTag);
+        }
+
+        String headBranch = GitUtil.getHeadBranch(repository);
+        final String providedBranch = configuration.getProvidedBranch();
+        if (providedBranch != null) {
+            headBranch = providedBranch.isEmpty() ? null : providedBranch;
+        } else if (headBranch == null && refIndex != null && configuration.isBranchInferenceEnabled()
+                && !matchesTagVersionDescription(headTags)) {
+            headBranch = inferBranch(refIndex, head);
+            if (headBranch != null) {
+                logger.info("HEAD is detached - infer branch " + headBranch);
+            }
+        }
+
+        return new GitRepoData(headCommit, headBranch, headTags, GitUtil.getCommitTime(repository, headCommit), complete);
+    }
+
+    /**
+     * Phases of a limited time budget open their own repository, so a phase running out of time
+     * does not use <code>repository</code> after it is closed.
+     */
+    private <T> T runPhase(TimeBudget timeBudget, String phase, Repository repository,
+                           RepositoryFunction<T> function, T fallback) throws IOException {
+        if (timeBudget.isUnlimited()) {
+            return function.apply(repository);
+        }
+        final File gitDir = WorktreeRepository.getWorktreeGitDir(repository);
+        final File workTree = repository.isBare() ? null : repository.getWorkTree();
+        return timeBudget.run(phase, () -> {
+            try (Repository phaseRepository = workTree != null
+                    ? repositoryCache.openRepository(workTree)
+                    : new FileRepositoryBuilder().setGitDir(gitDir).setMustExist(true).build()) {
+                return function.apply(phaseRepository);
+            }
+        }, fallback);
+    }
+
+    private interface RepositoryFunction<T> {
+        T apply(Repository repository) throws IOException;
+    }
+
+    /**
+     * Local branches take precedence over branches of {@link VersioningConfiguration#getBranchInferenceRemote()}.
+     * If several branches point to HEAD, the first branch version format decides, in configuration order.
+     *
+     * @return inferred branch name or null if no branch version format matches any branch pointing to HEAD
+     */
+    private String inferBranch(RefIndex refIndex, ObjectId head) {
+        final Set<String> candidateBranches = new LinkedHashSet<>(refIndex.getNames(head, Constants.R_HEADS));
+        for (String remoteBranch : refIndex.getNames(head, Constants.R_REMOTES + configuration.getBranchInferenceRemote() + "/")) {
+            if (!remoteBranch.equals(Constants.HEAD)) {
+                candidateBranches.add(remoteBranch);
+            }
+        }
+        if (candidateBranches.isEmpty()) {
+            return null;
+        }
+        for (VersionFormatDescription versionFormatDescription : configuration.getBranchVersionDescriptions()) {
+            GuardedPattern branchPattern = GuardedPattern.compile(versionFormatDescription.pattern);
+            for (String candidateBranch : candidateBranches) {
+                if (branchPattern.matches(candidateBranch)) {
+                    return candidateBranch;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesTagVersionDescription(List<String> tags) {
+        if (tags.isEmpty()) {
+            return false;
+        }
+        for (VersionFormatDescription versionFormatDescription : configuration.getTagVersionDescriptions()) {
+            GuardedPattern tagPattern = GuardedPattern.compile(versionFormatDescription.pattern);
+            if (tags.stream().anyMatch(tagPattern::matches)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param dir a directory within a git repository e.g. a module directory
+     * @return true if there are no changes within <code>dir</code>
+     * @throws IOException IOException
+     */
+    public boolean isClean(File dir) throws IOException {
+        final File canonicalDir = dir.getCanonicalFile();
+        Boolean clean = directoryCleanCache.get(canonicalDir);
+        if (clean == null) {
+            try (Repository repository = repositoryCache.openRepository(canonicalDir)) {
+                final String statusPath = GitUtil.workTreePath(repository, canonicalDir);
+                clean = GitUtil.isClean(repository, statusPath, configuration.isStatusSnapshotEnabled());
+            }
+            directoryCleanCache.put(canonicalDir, clean);
+        }
+        return clean;
+    }
+
+    /**
+     * @param projectDir the project directory
+     * @param commit     the commit id
+     * @return shortest unambiguous abbreviation of <code>commit</code> within git repository of <code>projectDir</code>,
+     * see {@link CommitAbbreviationCache}
+     */
+    private String getCommitAbbreviation(File projectDir, String commit) throws IOException {
+        final File gitDir = getGitDir(projectDir);
+        if (gitDir == null) {
+            return loadCommitAbbreviation(projectDir, commit);
+        }
+        // same commit may need a longer abbreviation within another git repository e.g. a git submodule
+        final Map<String, String> gitDirCommitAbbreviations = commitAbbreviationCache.computeIfAbsent(gitDir,
+                key -> new ConcurrentHashMap<>());
+        String abbreviation = gitDirCommitAbbreviations.get(commit);
+        if (abbreviation == null) {
+            abbreviation = loadCommitAbbreviation(projectDir, commit);
+            gitDirCommitAbbreviations.put(commit, abbreviation);
+        }
+        return abbreviation;
+    }
+
+    private String loadCommitAbbreviation(File projectDir, String commit) throws IOException {
+        try (Repository repository = repositoryCache.openRepository(projectDir)) {
+            return CommitAbbreviationCache.get(repository, commit, configuration.getCommitAbbreviationLength());
+        }
+    }
+
+    /**
+     * On first call the latest commits of all modules of the multi module project are determined by one history walk,
+     * results are cached per start commit.
+     * History is walked from the provided commit, if any, so module values match the provided commit values.
+     *
+     * @param projectDir the project directory
+     * @return latest commit that touched <code>projectDir</code>, start commit if directory was never committed
+     * or null if there is no start commit, e.g. provided commit is not present in repository
+     */
+    private RevCommit getModuleCommit(File projectDir) throws IOException {
+        try (Repository repository = repositoryCache.openRepository(projectDir)) {
+            final ObjectId start = getModuleHistoryStart(repository);
+            if (start == null) {
+                return null;
+            }
+            final String modulePath = GitUtil.workTreePath(repository, projectDir);
+            if (modulePath == null) {
+                return null;
+            }
+
+            Map<String, RevCommit> moduleCommits = moduleCommitCache.computeIfAbsent(start.getName(), key -> new ConcurrentHashMap<>());
+            if (!moduleCommits.containsKey(modulePath)) {
+                Set<String> modulePaths = new HashSet<>();
+                modulePaths.add(modulePath);
+                if (moduleCommits.isEmpty()) {
+                    for (File moduleDir : collectModuleDirectories(configuration.getMultiModuleProjectDirectory())) {
+                        final String path = GitUtil.workTreePath(repository, moduleDir);
+                        if (path != null) {
+                            modulePaths.add(path);
+                        }
+                    }
+                }
+                logger.debug("determine latest commits of " + modulePaths.size() + " module paths");
+                final Map<String, RevCommit> lastCommits = GitUtil.getLastCommits(repository, start, modulePaths);
+                final RevCommit startCommit;
+                try (RevWalk revWalk = new RevWalk(repository)) {
+                    startCommit = revWalk.parseCommit(start);
+                }
+                for (String path : modulePaths) {
+                    // directories that were never committed get start commit
+                    moduleCommits.put(path, lastCommits.getOrDefault(path, startCommit));
+                }
+            }
+            return moduleCommits.get(modulePath);
+        }
+    }
+
+    /**
+     * @return provided commit, if present in repository, or HEAD commit if no commit is provided
+     */
+    private ObjectId getModuleHistoryStart(Repository repository) throws IOException {
+        final String providedCommit = configuration.getProvidedCommit();
+        if (providedCommit == null) {
+            return repository.resolve(Constants.HEAD);
+        }
+        if (!ObjectId.isId(providedCommit)) {
+            return null;
+        }
+        final ObjectId commit = ObjectId.fromString(providedCommit);
+        return repository.hasObject(commit) ? commit : null;
+    }
+
+    private static Set<File> collectModuleDirectories(File projectDir) throws IOException {
+        Set<File> moduleDirectories = new LinkedHashSet<>();
+        collectModuleDirectories(projectDir.getCanonicalFile(), new File(projectDir, "pom.xml"), moduleDirectories);
+        return moduleDirectories;
+    }
+
+    private static void collectModuleDirectories(File projectDir, File pomFile, Set<File> moduleDirectories) throws IOException {
+        if (!pomFile.isFile() || !moduleDirectories.add(projectDir)) {
+            return;
+        }
+        for (String module : PomStreamReader.readModules(pomFile)) {
+            File moduleFile = new File(projectDir, module).getCanonicalFile();
+            if (moduleFile.isFile()) {
+                collectModuleDirectories(moduleFile.getParentFile(), moduleFile, moduleDirectories);
+            } else {
+                collectModuleDirectories(moduleFile, new File(moduleFile, "pom.xml"), moduleDirectories);
+            }
+        }
+    }
+
+    /**
+     * Commit time of HEAD or provided commit, read from git repository data if already present.
+     *
+     * @param dir    a directory within a git repository
+     * @param commit the commit id
+     * @return commit time in seconds since epoch or null if <code>commit</code> is not present in repository
+     * @throws IOException IOException
+     */
+    public Long getCommitTime(File dir, String commit) throws IOException {
+        final File gitDir = getGitDir(dir);
+        if (gitDir == null) {
+            return null;
+        }
+        final CompletableFuture<GitRepoData> gitRepoData = gitRepoDataCache.get(gitDir);
+        if (gitRepoData != null && gitRepoData.isDone() && !gitRepoData.isCompletedExceptionally()
+                && gitRepoData.join().getCommit().equals(commit)) {
+            return gitRepoData.join().getCommitTime();
+        }
+        final String commitTimeKey = gitDir + ":" + commit;
+        Optional<Long> commitTime = commitTimeCache.get(commitTimeKey);
+        if (commitTime == null) {
+            try (Repository repository = repositoryCache.openRepository(dir)) {
+                commitTime = Optional.ofNullable(GitUtil.getCommitTime(repository, commit));
+            }
+            commitTimeCache.put(commitTimeKey, commitTime);
+        }
+        return commitTime.orElse(null);
+    }
+
+    /**
+     * @param commitTime commit time in seconds since epoch
+     * @return ISO-8601 instant in UTC e.g. <code>2019-01-31T15:47:01Z</code>
+     */
+    static String formatCommitInstant(long commitTime) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat.format(new Date(commitTime * 1000L));
+    }
+
+    private static String formatCommitDate(long commitTime) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat.format(new Date(commitTime * 1000L));
+    }
+
+    private static String formatCommitTime(RevCommit commit) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd.HHmmss");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat.format(new Date(commit.getCommitTime() * 1000L));
+    }
+
+    private static Map<String, String> buildCommonVersionDataMap(GAV gav) {
+        Map<String, String> versionDataMap = new HashMap<>();
+        versionDataMap.put("version", gav.getVersion());
+        versionDataMap.put("version.release", gav.getVersion().replaceFirst("-SNAPSHOT$", ""));
+        return versionDataMap;
+    }
+
+    private static String escapeVersion(String version) {
+        return version.replace("/", "-");
+    }
+}
@@ -0,0 +1,143 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfiguration;
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfigurationProvider;
+import org.codehaus.plexus.logging.AbstractLogger;
+import org.codehaus.plexus.logging.Logger;
+
+import java.io.File;
+
+/**
+ * Prints git based project version without starting maven.
+ * <p>
+ * Usage: <code>java -cp ... me.qoomon.maven.extension.gitversioning.GitVersioningCli [--json] [PROJECT_DIRECTORY]</code>
+ * <p>
+ * Provided branch, tag and commit can be passed as system properties e.g. <code>-Dproject.branch=master</code>
+ * or as environment variables, see README.
+ */
+public final class GitVersioningCli {
+
+    public static void main(String[] args) throws Exception {
+        boolean json = false;
+        File projectDirectory = new File("").getAbsoluteFile();
+        for (String arg : args) {
+            if (arg.equals("--json")) {
+                json = true;
+            } else {
+                projectDirectory = new File(arg).getCanonicalFile();
+            }
+        }
+
+        Logger logger = new StandardErrorLogger();
+        File multiModuleProjectDirectory = findMultiModuleProjectDirectory(projectDirectory);
+        VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                .get(multiModuleProjectDirectory, System.getProperties());
+
+        GAV projectGav = PomStreamReader.readGAV(new File(projectDirectory, "pom.xml"));
+        if (!configuration.isEnabled()) {
+            print(json, new GAVGit(projectGav.getGroupId(), projectGav.getArtifactId(), projectGav.getVersion(), null, null, null));
+            return;
+        }
+
+        GAVGit projectGitBasedVersion = new GitVersionResolver(logger, configuration).resolve(projectGav, projectDirectory);
+        print(json, projectGitBasedVersion);
+    }
+
+    private static void print(boolean json, GAVGit gavGit) {
+        if (!json) {
+            System.out.println(gavGit.getVersion());
+            return;
+        }
+        System.out.println("{"
+                + "\"groupId\":" + jsonString(gavGit.getGroupId())
+                + ",\"artifactId\":" + jsonString(gavGit.getArtifactId())
+                + ",\"version\":" + jsonString(gavGit.getVersion())
+                + ",\"commit\":" + jsonString(gavGit.getCommit())
+                + ",\"commitRefType\":" + jsonString(gavGit.getCommitRefType())
+                + ",\"commitRefName\":" + jsonString(gavGit.getCommitRefName())
+                + "}");
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder result = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * Same lookup as maven launcher script, nearest parent directory containing a <code>.mvn</code> directory
+     */
+    private static File findMultiModuleProjectDirectory(File projectDirectory) {
+        for (File dir = projectDirectory; dir != null; dir = dir.getParentFile()) {
+            if (new File(dir, ".mvn").isDirectory()) {
+                return dir;
+            }
+        }
+        return projectDirectory;
+    }
+
+    private static class StandardErrorLogger extends AbstractLogger {
+
+        StandardErrorLogger() {
+            super(Integer.getInteger("gitVersioning.logLevel", LEVEL_WARN), GitVersioningCli.class.getSimpleName());
+        }
+
+        @Override
+        public void debug(String message, Throwable throwable) {
+            if (isDebugEnabled()) {
+                log("DEBUG", message, throwable);
+            }
+        }
+
+        @Override
+        public void info(String message, Throwable throwable) {
+            if (isInfoEnabled()) {
+                log("INFO", message, throwable);
+            }
+        }
+
+        @Override
+        public void warn(String message, Throwable throwable) {
+            if (isWarnEnabled()) {
+                log("WARNING", message, throwable);
+            }
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            if (isErrorEnabled()) {
+                log("ERROR", message, throwable);
+            }
+        }
+
+        @Override
+        public void fatalError(String message, Throwable throwable) {
+            if (isFatalErrorEnabled()) {
+                log("FATAL", message, throwable);
+            }
+        }
+
+        @Override
+        public Logger getChildLogger(String name) {
+            return this;
+        }
+
+        private static void log(String level, String message, Throwable throwable) {
+            System.err.println("[" + level + "] " + message);
+            if (throwable != null) {
+                throwable.printStackTrace();
+            }
+        }
+    }
+}
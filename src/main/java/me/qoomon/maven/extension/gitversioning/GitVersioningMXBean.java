@@ -0,0 +1,124 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.beans.ConstructorProperties;
+import java.util.Map;
+
+/**
+ * Live statistics of git versioning, registered as {@link #OBJECT_NAME} at the platform MBean server,
+ * e.g. readable by JConsole in long-lived build daemons.
+ */
+public interface GitVersioningMXBean {
+
+    String OBJECT_NAME = "me.qoomon.maven.extension.gitversioning:type=GitVersioning";
+
+    /**
+     * @return latency of reading git repository data, including waiting for background reads
+     */
+    LatencyStatistics getGitRepoDataLatency();
+
+    /**
+     * @return latency of determining git based project versions, including lock and cache lookups
+     */
+    LatencyStatistics getProjectVersionLatency();
+
+    /**
+     * @return latency of writing git versioned pom files
+     */
+    LatencyStatistics getPomWriteLatency();
+
+    /**
+     * @return in memory git based versions of current session
+     */
+    CacheStatistics getGitVersionCache();
+
+    /**
+     * @return in memory processed models of current session
+     */
+    CacheStatistics getProcessedModelCache();
+
+    /**
+     * @return version lock lookups, size is the number of locked versions
+     */
+    CacheStatistics getVersionLock();
+
+    /**
+     * @return shared version cache directory lookups, size is not tracked
+     */
+    CacheStatistics getVersionCache();
+
+    /**
+     * @return last resolved git based version by git directory
+     */
+    Map<String, String> getLastVersions();
+
+    class LatencyStatistics {
+
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+        private final long[] bucketUpperBoundsMillis;
+        private final long[] bucketCounts;
+
+        @ConstructorProperties({"count", "totalMillis", "maxMillis", "bucketUpperBoundsMillis", "bucketCounts"})
+        public LatencyStatistics(long count, long totalMillis, long maxMillis, long[] bucketUpperBoundsMillis, long[] bucketCounts) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+            this.bucketUpperBoundsMillis = bucketUpperBoundsMillis;
+            this.bucketCounts = bucketCounts;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * @return exclusive upper bound of each histogram bucket, last bucket is unbounded
+         */
+        public long[] getBucketUpperBoundsMillis() {
+            return bucketUpperBoundsMillis;
+        }
+
+        public long[] getBucketCounts() {
+            return bucketCounts;
+        }
+    }
+
+    class CacheStatistics {
+
+        private final long size;
+        private final long hits;
+        private final long misses;
+
+        @ConstructorProperties({"size", "hits", "misses"})
+        public CacheStatistics(long size, long hits, long misses) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public double getHitRatio() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+}
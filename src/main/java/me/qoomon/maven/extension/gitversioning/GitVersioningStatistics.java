@@ -0,0 +1,160 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import javax.management.*;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Recording side of {@link GitVersioningMXBean}, counters are lock free.
+ */
+final class GitVersioningStatistics implements GitVersioningMXBean {
+
+    final Latency gitRepoData = new Latency();
+    final Latency projectVersion = new Latency();
+    final Latency pomWrite = new Latency();
+
+    final Counter gitVersionCache = new Counter();
+    final Counter processedModelCache = new Counter();
+    final Counter versionLock = new Counter();
+    final Counter versionCache = new Counter();
+
+    private final Map<String, String> lastVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers <code>statistics</code> at the platform MBean server, replaces a previous registration,
+     * e.g. of a former extension class realm.
+     *
+     * @param statistics the statistics
+     * @throws JMException JMException
+     */
+    static void register(GitVersioningStatistics statistics) throws JMException {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(OBJECT_NAME);
+        if (mBeanServer.isRegistered(objectName)) {
+            mBeanServer.unregisterMBean(objectName);
+        }
+        mBeanServer.registerMBean(new StandardMBean(statistics, GitVersioningMXBean.class, true), objectName);
+    }
+
+    void recordVersion(File gitDir, String version) {
+        lastVersions.put(gitDir.getPath(), version);
+    }
+
+    @Override
+    public LatencyStatistics getGitRepoDataLatency() {
+        return gitRepoData.toStatistics();
+    }
+
+    @Override
+    public LatencyStatistics getProjectVersionLatency() {
+        return projectVersion.toStatistics();
+    }
+
+    @Override
+    public LatencyStatistics getPomWriteLatency() {
+        return pomWrite.toStatistics();
+    }
+
+    @Override
+    public CacheStatistics getGitVersionCache() {
+        return gitVersionCache.toStatistics();
+    }
+
+    @Override
+    public CacheStatistics getProcessedModelCache() {
+        return processedModelCache.toStatistics();
+    }
+
+    @Override
+    public CacheStatistics getVersionLock() {
+        return versionLock.toStatistics();
+    }
+
+    @Override
+    public CacheStatistics getVersionCache() {
+        return versionCache.toStatistics();
+    }
+
+    @Override
+    public Map<String, String> getLastVersions() {
+        return new TreeMap<>(lastVersions);
+    }
+
+    /**
+     * Duration histogram with power of two millisecond buckets, from <code>&lt; 1ms</code>
+     * up to <code>&gt;= 2^(BUCKET_COUNT - 2)ms</code>.
+     */
+    static final class Latency {
+
+        private static final int BUCKET_COUNT = 16;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+        /**
+         * @return start time, see {@link #stop(long)}
+         */
+        long start() {
+            return System.nanoTime();
+        }
+
+        void stop(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        void record(long durationNanos) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            int bucket = durationMillis == 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(durationMillis), BUCKET_COUNT - 1);
+            bucketCounts.incrementAndGet(bucket);
+        }
+
+        LatencyStatistics toStatistics() {
+            long[] upperBounds = new long[BUCKET_COUNT];
+            long[] counts = new long[BUCKET_COUNT];
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                upperBounds[bucket] = bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+                counts[bucket] = bucketCounts.get(bucket);
+            }
+            return new LatencyStatistics(count.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                    upperBounds, counts);
+        }
+    }
+
+    static final class Counter {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private volatile IntSupplier size = () -> 0;
+
+        void hit() {
+            hits.increment();
+        }
+
+        void miss() {
+            misses.increment();
+        }
+
+        void setSize(IntSupplier size) {
+            this.size = size;
+        }
+
+        CacheStatistics toStatistics() {
+            return new CacheStatistics(size.getAsInt(), hits.sum(), misses.sum());
+        }
+    }
+}
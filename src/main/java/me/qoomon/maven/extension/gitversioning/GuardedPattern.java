@@ -0,0 +1,1057 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regular expression matching for user supplied branch and tag patterns, that can not stall on pathological patterns.
+ * <p>
+ * Supported patterns are executed by a Pike VM, an automaton simulation that tracks all possible matches in parallel,
+ * in linear time of text length. Group values are the same as of {@link java.util.regex}, because threads are
+ * prioritized in backtracking order.
+ * <p>
+ * Supported: literals, escapes, <code>.</code>, character classes, groups (capturing, non-capturing, named),
+ * alternation, greedy and lazy quantifiers, <code>^</code> and <code>$</code>.
+ * All other constructs e.g. back references, look arounds or flags are matched by {@link java.util.regex}
+ * with a step budget instead.
+ */
+final class GuardedPattern {
+
+    /**
+     * maximum text reads of a {@link java.util.regex} fallback match
+     */
+    static final long FALLBACK_STEP_BUDGET = 1_000_000;
+
+    private static final int MAX_PROGRAM_SIZE = 5000;
+
+    private static final Pattern GROUP_NAME_PATTERN = Pattern.compile("\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>");
+
+    private final String regex;
+    private final Pattern pattern;
+    private final Instruction[] program;
+    private final int groupCount;
+    private final Map<String, Integer> groupNames;
+
+    private GuardedPattern(String regex, Pattern pattern, Instruction[] program, int groupCount, Map<String, Integer> groupNames) {
+        this.regex = regex;
+        this.pattern = pattern;
+        this.program = program;
+        this.groupCount = groupCount;
+        this.groupNames = groupNames;
+    }
+
+    /**
+     * @param regex regular expression, see {@link Pattern}
+     * @return compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if <code>regex</code> is not valid
+     */
+    static GuardedPattern compile(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        int groupCount = pattern.matcher("").groupCount();
+        Instruction[] program = null;
+        Map<String, Integer> groupNames = new LinkedHashMap<>();
+        try {
+            Parser parser = new Parser(regex);
+            Node node = parser.parse();
+            if (parser.groupCount == groupCount) {
+                List<Instruction> instructions = new ArrayList<>();
+                new Group(node, 0).emit(instructions);
+                instructions.add(new Instruction(Instruction.MATCH));
+                if (instructions.size() <= MAX_PROGRAM_SIZE) {
+                    program = instructions.toArray(new Instruction[0]);
+                    groupNames = parser.groupNames;
+                }
+            }
+        } catch (UnsupportedPatternException ignore) {
+            // matched by java.util.regex
+        }
+        if (program == null) {
+            groupNames = new LinkedHashMap<>();
+            Matcher groupNameMatcher = GROUP_NAME_PATTERN.matcher(regex);
+            while (groupNameMatcher.find()) {
+                groupNames.put(groupNameMatcher.group(1), -1);
+            }
+        }
+        return new GuardedPattern(regex, pattern, program, groupCount, groupNames);
+    }
+
+    /**
+     * @return true if supported by linear time matching
+     */
+    boolean isLinear() {
+        return program != null;
+    }
+
+    /**
+     * @param text text
+     * @return true if whole <code>text</code> matches, same as {@link String#matches(String)}
+     */
+    boolean matches(String text) {
+        if (program != null && !hasSurrogates(text)) {
+            return execute(text, true) != null;
+        }
+        return fallback(text, Matcher::matches) != null;
+    }
+
+    /**
+     * @param text text
+     * @return start and end index of first match or null if there is no match
+     */
+    int[] find(String text) {
+        if (program != null && !hasSurrogates(text)) {
+            int[] captures = execute(text, false);
+            return captures == null ? null : new int[]{captures[0], captures[1]};
+        }
+        return fallback(text, Matcher::find);
+    }
+
+    /**
+     * @param text text
+     * @return values of first match by group index and group name, empty if there is no match
+     */
+    Map<String, String> findGroupValues(String text) {
+        Map<String, String> result = new HashMap<>();
+        if (program != null && !hasSurrogates(text)) {
+            int[] captures = execute(text, false);
+            if (captures != null) {
+                for (int i = 0; i <= groupCount; i++) {
+                    result.put(String.valueOf(i), captures[2 * i] < 0 ? null : text.substring(captures[2 * i], captures[2 * i + 1]));
+                }
+                groupNames.forEach((groupName, groupIndex) -> result.put(groupName, result.get(String.valueOf(groupIndex))));
+            }
+            return result;
+        }
+        fallback(text, matcher -> {
+            if (matcher.find()) {
+                for (int i = 0; i <= matcher.groupCount(); i++) {
+                    result.put(String.valueOf(i), matcher.group(i));
+                }
+                groupNames.keySet().forEach(groupName -> result.put(groupName, matcher.group(groupName)));
+            }
+            return false;
+        });
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+
+    private static boolean hasSurrogates(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] fallback(String text, MatchOperation operation) {
+        Matcher matcher = pattern.matcher(new BudgetCharSequence(text, new long[]{FALLBACK_STEP_BUDGET}));
+        try {
+            return operation.test(matcher) ? new int[]{matcher.start(), matcher.end()} : null;
+        } catch (StepBudgetExceededException e) {
+            throw new IllegalArgumentException("Pattern '" + regex + "' exceeded matching step budget on '" + text + "'"
+                    + ", simplify pattern e.g. avoid nested quantifiers");
+        }
+    }
+
+    private interface MatchOperation {
+        boolean test(Matcher matcher);
+    }
+
+    // ----- Pike VM -----------------------------------------------------------------------------------------------
+
+    /**
+     * @param fullMatch if true, match has to span whole text, otherwise first match is searched
+     * @return capture positions of highest priority match or null if there is no match
+     */
+    private int[] execute(String text, boolean fullMatch) {
+        ThreadList currentThreads = new ThreadList(program.length);
+        ThreadList nextThreads = new ThreadList(program.length);
+        int[] initialCaptures = new int[2 * (groupCount + 1)];
+        Arrays.fill(initialCaptures, -1);
+
+        int[] matchCaptures = null;
+        for (int position = 0; ; position++) {
+            if (matchCaptures == null && (position == 0 || !fullMatch)) {
+                // new thread has lowest priority, leftmost match wins
+                addThread(currentThreads, 0, initialCaptures, text, position);
+            }
+            if (currentThreads.size == 0 && (matchCaptures != null || fullMatch)) {
+                break;
+            }
+            for (int i = 0; i < currentThreads.size; i++) {
+                int pc = currentThreads.pcs[i];
+                int[] captures = currentThreads.captures[i];
+                Instruction instruction = program[pc];
+                if (instruction.op == Instruction.MATCH) {
+                    if (fullMatch && position != text.length()) {
+                        continue;
+                    }
+                    matchCaptures = captures;
+                    break; // cut off lower priority threads
+                }
+                if (position < text.length() && instruction.predicate.test(text.charAt(position))) {
+                    addThread(nextThreads, pc + 1, captures, text, position + 1);
+                }
+            }
+            if (position >= text.length()) {
+                break;
+            }
+            ThreadList swap = currentThreads;
+            currentThreads = nextThreads;
+            nextThreads = swap;
+            nextThreads.clear();
+        }
+        return matchCaptures;
+    }
+
+    /**
+     * Follows all epsilon transitions from <code>pc</code> in priority order.
+     */
+    private void addThread(ThreadList threads, int pc, int[] captures, String text, int position) {
+        if (!threads.visit(pc)) {
+            return;
+        }
+        Instruction instruction = program[pc];
+        switch (instruction.op) {
+            case Instruction.JUMP:
+                addThread(threads, instruction.x, captures, text, position);
+                break;
+            case Instruction.SPLIT:
+                addThread(threads, instruction.x, captures, text, position);
+                addThread(threads, instruction.y, captures, text, position);
+                break;
+            case Instruction.SAVE:
+                int[] savedCaptures = captures.clone();
+                savedCaptures[instruction.x] = position;
+                addThread(threads, pc + 1, savedCaptures, text, position);
+                break;
+            case Instruction.ASSERT_BEGIN:
+                if (position == 0) {
+                    addThread(threads, pc + 1, captures, text, position);
+                }
+                break;
+            case Instruction.ASSERT_END:
+                if (isEnd(text, position)) {
+                    addThread(threads, pc + 1, captures, text, position);
+                }
+                break;
+            default:
+                threads.add(pc, captures);
+        }
+    }
+
+    /**
+     * same as <code>$</code> of {@link java.util.regex}, end of text or before final line terminator
+     */
+    private static boolean isEnd(String text, int position) {
+        int remaining = text.length() - position;
+        return remaining == 0
+                || remaining == 1 && isLineTerminator(text.charAt(position))
+                || remaining == 2 && text.charAt(position) == '\r' && text.charAt(position + 1) == '\n';
+    }
+
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static final class ThreadList {
+
+        private final int[] visited;
+        private int generation = 1;
+
+        private final int[] pcs;
+        private final int[][] captures;
+        private int size;
+
+        ThreadList(int programSize) {
+            this.visited = new int[programSize];
+            this.pcs = new int[programSize];
+            this.captures = new int[programSize][];
+        }
+
+        boolean visit(int pc) {
+            if (visited[pc] == generation) {
+                return false;
+            }
+            visited[pc] = generation;
+            return true;
+        }
+
+        void add(int pc, int[] threadCaptures) {
+            pcs[size] = pc;
+            captures[size] = threadCaptures;
+            size++;
+        }
+
+        void clear() {
+            generation++;
+            size = 0;
+        }
+    }
+
+    private static final class Instruction {
+
+        static final int CHAR = 0;
+        static final int MATCH = 1;
+        static final int JUMP = 2;
+        static final int SPLIT = 3;
+        static final int SAVE = 4;
+        static final int ASSERT_BEGIN = 5;
+        static final int ASSERT_END = 6;
+
+        final int op;
+        final IntPredicate predicate;
+        int x;
+        int y;
+
+        Instruction(int op) {
+            this(op, null, 0, 0);
+        }
+
+        Instruction(int op, IntPredicate predicate, int x, int y) {
+            this.op = op;
+            this.predicate = predicate;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // ----- Syntax tree -------------------------------------------------------------------------------------------
+
+    private interface Node {
+
+        void emit(List<Instruction> program);
+
+        /**
+         * @return true if node can match empty text
+         */
+        boolean isNullable();
+
+        /**
+         * @return true if node can match non empty text
+         */
+        boolean isConsuming();
+
+        /**
+         * @return true if all non empty matches take priority over empty matches
+         */
+        boolean isEmptyLast();
+
+        /**
+         * @return true if node contains a capturing group
+         */
+        default boolean hasCapture() {
+            return false;
+        }
+
+        /**
+         * @return true if node contains a capturing group within a repetition
+         */
+        default boolean hasRepeatedCapture() {
+            return false;
+        }
+
+        /**
+         * @return true if node contains a capturing group within a capturing group
+         */
+        default boolean hasNestedCapture() {
+            return false;
+        }
+
+        /**
+         * adds an instruction, jump targets are patched later
+         */
+        static Instruction add(List<Instruction> program, int op) {
+            Instruction instruction = new Instruction(op);
+            program.add(instruction);
+            return instruction;
+        }
+    }
+
+    private static final class CharNode implements Node {
+
+        private final IntPredicate predicate;
+
+        CharNode(IntPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            program.add(new Instruction(Instruction.CHAR, predicate, 0, 0));
+        }
+
+        @Override
+        public boolean isNullable() {
+            return false;
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return true;
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            return true;
+        }
+    }
+
+    private static final class AssertNode implements Node {
+
+        private final int op;
+
+        AssertNode(int op) {
+            this.op = op;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            Node.add(program, op);
+        }
+
+        @Override
+        public boolean isNullable() {
+            return true;
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return false;
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            return true;
+        }
+    }
+
+    private static final class Concatenation implements Node {
+
+        private final List<Node> nodes;
+
+        Concatenation(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            for (Node node : nodes) {
+                node.emit(program);
+            }
+        }
+
+        @Override
+        public boolean isNullable() {
+            return nodes.stream().allMatch(Node::isNullable);
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return nodes.stream().anyMatch(Node::isConsuming);
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            return nodes.stream().allMatch(Node::isEmptyLast);
+        }
+
+        @Override
+        public boolean hasCapture() {
+            return nodes.stream().anyMatch(Node::hasCapture);
+        }
+
+        @Override
+        public boolean hasRepeatedCapture() {
+            return nodes.stream().anyMatch(Node::hasRepeatedCapture);
+        }
+
+        @Override
+        public boolean hasNestedCapture() {
+            return nodes.stream().anyMatch(Node::hasNestedCapture);
+        }
+    }
+
+    private static final class Alternation implements Node {
+
+        private final List<Node> alternatives;
+
+        Alternation(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            List<Instruction> endJumps = new ArrayList<>();
+            for (int i = 0; i < alternatives.size(); i++) {
+                if (i < alternatives.size() - 1) {
+                    Instruction split = Node.add(program, Instruction.SPLIT);
+                    split.x = program.size();
+                    alternatives.get(i).emit(program);
+                    endJumps.add(Node.add(program, Instruction.JUMP));
+                    split.y = program.size();
+                } else {
+                    alternatives.get(i).emit(program);
+                }
+            }
+            endJumps.forEach(jump -> jump.x = program.size());
+        }
+
+        @Override
+        public boolean isNullable() {
+            return alternatives.stream().anyMatch(Node::isNullable);
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return alternatives.stream().anyMatch(Node::isConsuming);
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            boolean nullableAlternativeFound = false;
+            for (Node alternative : alternatives) {
+                if (nullableAlternativeFound && alternative.isConsuming() || !alternative.isEmptyLast()) {
+                    return false;
+                }
+                nullableAlternativeFound |= alternative.isNullable();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean hasCapture() {
+            return alternatives.stream().anyMatch(Node::hasCapture);
+        }
+
+        @Override
+        public boolean hasRepeatedCapture() {
+            return alternatives.stream().anyMatch(Node::hasRepeatedCapture);
+        }
+
+        @Override
+        public boolean hasNestedCapture() {
+            return alternatives.stream().anyMatch(Node::hasNestedCapture);
+        }
+    }
+
+    private static final class Group implements Node {
+
+        private final Node node;
+        private final int index;
+
+        Group(Node node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            Node.add(program, Instruction.SAVE).x = 2 * index;
+            node.emit(program);
+            Node.add(program, Instruction.SAVE).x = 2 * index + 1;
+        }
+
+        @Override
+        public boolean isNullable() {
+            return node.isNullable();
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return node.isConsuming();
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            return node.isEmptyLast();
+        }
+
+        @Override
+        public boolean hasCapture() {
+            return true;
+        }
+
+        @Override
+        public boolean hasRepeatedCapture() {
+            return node.hasRepeatedCapture();
+        }
+
+        @Override
+        public boolean hasNestedCapture() {
+            return node.hasCapture();
+        }
+    }
+
+    private static final class Repetition implements Node {
+
+        private final Node node;
+        private final int min;
+        private final int max;
+        private final boolean greedy;
+
+        /**
+         * @param max maximum repetitions, -1 for unbounded
+         */
+        Repetition(Node node, int min, int max, boolean greedy) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+
+        @Override
+        public void emit(List<Instruction> program) {
+            for (int i = 0; i < min; i++) {
+                node.emit(program);
+                checkSize(program);
+            }
+            if (max < 0) {
+                // x* is emitted as (x+)? so an empty iteration leaves the loop instead of being discarded
+                Instruction enter = Node.add(program, Instruction.SPLIT);
+                int bodyStart = program.size();
+                node.emit(program);
+                Instruction repeat = Node.add(program, Instruction.SPLIT);
+                if (greedy && node.isNullable()) {
+                    // java.util.regex tries one more, empty, iteration before leaving a greedy loop,
+                    // emulated by a copy of the body that can only match empty text
+                    repeat.x = bodyStart;
+                    repeat.y = program.size();
+                    Instruction emptyIteration = Node.add(program, Instruction.SPLIT);
+                    emptyIteration.x = program.size();
+                    int emptyBodyStart = program.size();
+                    node.emit(program);
+                    for (int i = emptyBodyStart; i < program.size(); i++) {
+                        if (program.get(i).op == Instruction.CHAR) {
+                            program.set(i, new Instruction(Instruction.CHAR, ch -> false, 0, 0));
+                        }
+                    }
+                    emptyIteration.y = program.size();
+                } else {
+                    setTargets(repeat, bodyStart, program.size());
+                }
+                setTargets(enter, bodyStart, program.size());
+                checkSize(program);
+            } else {
+                List<Instruction> optionalSplits = new ArrayList<>();
+                for (int i = min; i < max; i++) {
+                    Instruction split = Node.add(program, Instruction.SPLIT);
+                    split.x = program.size();
+                    optionalSplits.add(split);
+                    node.emit(program);
+                    checkSize(program);
+                }
+                optionalSplits.forEach(split -> setTargets(split, split.x, program.size()));
+            }
+        }
+
+        @Override
+        public boolean isNullable() {
+            return min == 0 || node.isNullable();
+        }
+
+        @Override
+        public boolean isConsuming() {
+            return max != 0 && node.isConsuming();
+        }
+
+        @Override
+        public boolean isEmptyLast() {
+            return greedy ? node.isEmptyLast() : !isNullable() || !isConsuming();
+        }
+
+        @Override
+        public boolean hasCapture() {
+            return node.hasCapture();
+        }
+
+        @Override
+        public boolean hasRepeatedCapture() {
+            return node.hasRepeatedCapture() || max != 1 && node.hasCapture();
+        }
+
+        @Override
+        public boolean hasNestedCapture() {
+            return node.hasNestedCapture();
+        }
+
+        private void setTargets(Instruction split, int body, int exit) {
+            split.x = greedy ? body : exit;
+            split.y = greedy ? exit : body;
+        }
+
+        private static void checkSize(List<Instruction> program) {
+            if (program.size() > MAX_PROGRAM_SIZE) {
+                throw new UnsupportedPatternException();
+            }
+        }
+    }
+
+    // ----- Parser ------------------------------------------------------------------------------------------------
+
+    /**
+     * Parses the supported subset of {@link Pattern} syntax,
+     * regex is already validated by {@link Pattern#compile(String)}.
+     */
+    private static final class Parser {
+
+        private final String regex;
+        private int position;
+
+        int groupCount;
+        final Map<String, Integer> groupNames = new LinkedHashMap<>();
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            Node node = parseAlternation();
+            if (position != regex.length()) {
+                throw new UnsupportedPatternException();
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (peek() == '|') {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        private Node parseConcatenation() {
+            List<Node> nodes = new ArrayList<>();
+            while (position < regex.length() && peek() != '|' && peek() != ')') {
+                nodes.add(parseRepetition());
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Concatenation(nodes);
+        }
+
+        private Node parseRepetition() {
+            Node atom = parseAtom();
+            int min;
+            int max;
+            switch (peek()) {
+                case '*':
+                    position++;
+                    min = 0;
+                    max = -1;
+                    break;
+                case '+':
+                    position++;
+                    min = 1;
+                    max = -1;
+                    break;
+                case '?':
+                    position++;
+                    min = 0;
+                    max = 1;
+                    break;
+                case '{':
+                    position++;
+                    min = parseNumber();
+                    max = min;
+                    if (peek() == ',') {
+                        position++;
+                        max = peek() == '}' ? -1 : parseNumber();
+                    }
+                    expect('}');
+                    break;
+                default:
+                    return atom;
+            }
+            boolean greedy = true;
+            if (peek() == '?') {
+                position++;
+                greedy = false;
+            }
+            if (!atom.isConsuming()
+                    || atom.isNullable() && max != 1 && !(max < 0 && min <= 1 && greedy && atom.isEmptyLast())) {
+                // java.util.regex counts and prioritizes empty iterations differently
+                throw new UnsupportedPatternException();
+            }
+            if (max != 1 && atom.hasCapture()
+                    && (max > 1 || !(atom instanceof Group) || atom.hasNestedCapture() || atom.hasRepeatedCapture())) {
+                // java.util.regex only resets the capture of a repeated group itself, if an iteration is abandoned
+                throw new UnsupportedPatternException();
+            }
+            if (peek() == '+' || peek() == '*' || peek() == '?' || peek() == '{') {
+                // possessive or stacked quantifiers
+                throw new UnsupportedPatternException();
+            }
+            return new Repetition(atom, min, max, greedy);
+        }
+
+        private Node parseAtom() {
+            char c = next();
+            switch (c) {
+                case '(':
+                    return parseGroup();
+                case '[':
+                    return new CharNode(parseCharacterClass());
+                case '.':
+                    return new CharNode(ch -> !isLineTerminator(ch));
+                case '^':
+                    return new AssertNode(Instruction.ASSERT_BEGIN);
+                case '$':
+                    return new AssertNode(Instruction.ASSERT_END);
+                case '\\':
+                    return new CharNode(parseEscape(false));
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedPatternException();
+                default:
+                    return new CharNode(literal(c));
+            }
+        }
+
+        private Node parseGroup() {
+            String groupName = null;
+            boolean capturing = true;
+            if (peek() == '?') {
+                position++;
+                char type = next();
+                if (type == ':') {
+                    capturing = false;
+                } else if (type == '<' && Character.isLetter(peek())) {
+                    int nameStart = position;
+                    while (Character.isLetterOrDigit(peek())) {
+                        position++;
+                    }
+                    groupName = regex.substring(nameStart, position);
+                    expect('>');
+                } else {
+                    // look arounds, flags, atomic groups
+                    throw new UnsupportedPatternException();
+                }
+            }
+            int groupIndex = capturing ? ++groupCount : -1;
+            if (groupName != null) {
+                groupNames.put(groupName, groupIndex);
+            }
+            Node node = parseAlternation();
+            expect(')');
+            return capturing ? new Group(node, groupIndex) : node;
+        }
+
+        private IntPredicate parseCharacterClass() {
+            boolean negated = false;
+            if (peek() == '^') {
+                position++;
+                negated = true;
+            }
+            if (peek() == ']') {
+                throw new UnsupportedPatternException();
+            }
+            IntPredicate predicate = ch -> false;
+            while (peek() != ']') {
+                char c = next();
+                if (c == '[' || c == '&' && peek() == '&') {
+                    // unions and intersections
+                    throw new UnsupportedPatternException();
+                }
+                IntPredicate item;
+                int rangeStart = -1;
+                if (c == '\\') {
+                    char escaped = peek();
+                    item = parseEscape(true);
+                    if (!isClassEscape(escaped)) {
+                        rangeStart = escapedLiteral(escaped);
+                    }
+                } else {
+                    item = literal(c);
+                    rangeStart = c;
+                }
+                if (rangeStart >= 0 && peek() == '-' && peekAt(1) != ']') {
+                    position++;
+                    char end = next();
+                    int rangeEnd;
+                    if (end == '\\') {
+                        char escaped = peek();
+                        if (isClassEscape(escaped)) {
+                            throw new UnsupportedPatternException();
+                        }
+                        parseEscape(true);
+                        rangeEnd = escapedLiteral(escaped);
+                    } else if (end == '[') {
+                        throw new UnsupportedPatternException();
+                    } else {
+                        rangeEnd = end;
+                    }
+                    int from = rangeStart;
+                    item = ch -> ch >= from && ch <= rangeEnd;
+                }
+                predicate = predicate.or(item);
+            }
+            position++;
+            return negated ? predicate.negate() : predicate;
+        }
+
+        private IntPredicate parseEscape(boolean withinCharacterClass) {
+            char c = next();
+            switch (c) {
+                case 'd':
+                    return GuardedPattern::isDigit;
+                case 'D':
+                    return ch -> !isDigit(ch);
+                case 'w':
+                    return GuardedPattern::isWordChar;
+                case 'W':
+                    return ch -> !isWordChar(ch);
+                case 's':
+                    return GuardedPattern::isWhitespace;
+                case 'S':
+                    return ch -> !isWhitespace(ch);
+                default:
+                    int literal = escapedLiteral(c);
+                    if (literal < 0) {
+                        // back references, boundaries, unicode classes, quotations, ...
+                        throw new UnsupportedPatternException();
+                    }
+                    return literal(literal);
+            }
+        }
+
+        private static boolean isClassEscape(char c) {
+            return "dDwWsS".indexOf(c) >= 0;
+        }
+
+        /**
+         * @return escaped literal char or -1 if escape is no literal
+         */
+        private static int escapedLiteral(char c) {
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return '\u0007';
+                case 'e':
+                    return '\u001B';
+                default:
+                    return Character.isLetterOrDigit(c) || Character.isSurrogate(c) ? -1 : c;
+            }
+        }
+
+        private static IntPredicate literal(int c) {
+            if (Character.isSurrogate((char) c)) {
+                throw new UnsupportedPatternException();
+            }
+            return ch -> ch == c;
+        }
+
+        private int parseNumber() {
+            int start = position;
+            while (Character.isDigit(peek())) {
+                position++;
+            }
+            if (start == position || position - start > 4) {
+                throw new UnsupportedPatternException();
+            }
+            return Integer.parseInt(regex.substring(start, position));
+        }
+
+        private char peek() {
+            return peekAt(0);
+        }
+
+        private char peekAt(int offset) {
+            return position + offset < regex.length() ? regex.charAt(position + offset) : '\0';
+        }
+
+        private char next() {
+            if (position >= regex.length()) {
+                throw new UnsupportedPatternException();
+            }
+            return regex.charAt(position++);
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw new UnsupportedPatternException();
+            }
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static final class UnsupportedPatternException extends RuntimeException {
+
+        UnsupportedPatternException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // ----- Fallback ----------------------------------------------------------------------------------------------
+
+    private static final class StepBudgetExceededException extends RuntimeException {
+
+        StepBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Counts every character read of {@link java.util.regex}, which is proportional to backtracking steps.
+     */
+    private static final class BudgetCharSequence implements CharSequence {
+
+        private final String text;
+        private final long[] budget;
+
+        BudgetCharSequence(String text, long[] budget) {
+            this.text = text;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--budget[0] < 0) {
+                throw new StepBudgetExceededException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetCharSequence(text.substring(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package me.qoomon.maven.extension.gitversioning;
 
-import org.apache.maven.model.Model;
+import org.apache.maven.model.*;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
 
 /**
  * Created by qoomon on 18/11/2016.
@@ -28,15 +31,83 @@ public final class ModelUtil {
     }
 
     /**
-     * Writes model to pom file
+     * Writes model to pom file in canonical form, so equal models result in byte identical files on every platform.
+     * <ul>
+     * <li>UTF-8 encoding and <code>\n</code> line endings, independent of platform defaults and model encoding</li>
+     * <li>properties are ordered by key, elements are ordered by {@link MavenXpp3Writer}</li>
+     * </ul>
+     * File is not touched if it has the same content already.
      *
      * @param model   model
      * @param pomFile pomFile
      * @throws IOException IOException
      */
     public static void writeModel(Model model, File pomFile) throws IOException {
-        try (FileWriter fileWriter = new FileWriter(pomFile)) {
-            new MavenXpp3Writer().write(fileWriter, model);
+        byte[] content = toCanonicalBytes(model);
+        if (pomFile.isFile() && pomFile.length() == content.length
+                && Arrays.equals(Files.readAllBytes(pomFile.toPath()), content)) {
+            return;
+        }
+        Files.write(pomFile.toPath(), content);
+    }
+
+    /**
+     * @param model model
+     * @return canonical pom file content, see {@link #writeModel(Model, File)}
+     * @throws IOException IOException
+     */
+    static byte[] toCanonicalBytes(Model model) throws IOException {
+        Model canonicalModel = model.clone();
+        canonicalModel.setModelEncoding(StandardCharsets.UTF_8.name());
+        canonicalModel.setProperties(sorted(canonicalModel.getProperties()));
+        for (Profile profile : canonicalModel.getProfiles()) {
+            profile.setProperties(sorted(profile.getProperties()));
+        }
+        for (Developer developer : canonicalModel.getDevelopers()) {
+            developer.setProperties(sorted(developer.getProperties()));
+        }
+        for (Contributor contributor : canonicalModel.getContributors()) {
+            contributor.setProperties(sorted(contributor.getProperties()));
+        }
+        if (canonicalModel.getCiManagement() != null) {
+            for (Notifier notifier : canonicalModel.getCiManagement().getNotifiers()) {
+                notifier.setConfiguration(sorted(notifier.getConfiguration()));
+            }
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new MavenXpp3Writer().write(outputStream, canonicalModel);
+        return outputStream.toByteArray();
+    }
+
+    private static Properties sorted(Properties properties) {
+        SortedProperties sortedProperties = new SortedProperties();
+        sortedProperties.putAll(properties);
+        return sortedProperties;
+    }
+
+    /**
+     * Iterates keys in natural order, {@link MavenXpp3Writer} writes properties in key set order.
+     */
+    private static final class SortedProperties extends Properties {
+
+        @Override
+        public Set<Object> keySet() {
+            return Collections.unmodifiableSet(new TreeSet<>(super.keySet()));
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            TreeMap<Object, Object> sortedEntries = new TreeMap<>();
+            for (Map.Entry<Object, Object> entry : super.entrySet()) {
+                sortedEntries.put(entry.getKey(), entry.getValue());
+            }
+            return Collections.unmodifiableSet(sortedEntries.entrySet());
+        }
+
+        @Override
+        public synchronized Enumeration<Object> keys() {
+            return Collections.enumeration(keySet());
         }
     }
 
@@ -0,0 +1,64 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Replaces pom files of projects with git versioned pom files generated from in memory project models,
+ * so install and deploy publish git based versions.
+ * <p>
+ * Pom files are replaced per project, see {@link VersioningPomReplacementEventSpy}.
+ */
+final class PomReplacement {
+
+    static final String GIT_VERSIONED_POM_FILE_NAME = ".git-versioned.pom.xml";
+
+    private PomReplacement() {
+    }
+
+    /**
+     * Writes git versioned pom file of <code>project</code> into its project directory and replaces project pom file.
+     *
+     * @param project    the project
+     * @param statistics statistics to record pom writes
+     * @throws IOException IOException
+     */
+    static void replacePomFile(MavenProject project, GitVersioningStatistics statistics) throws IOException {
+        project.setPomFile(writePomFile(project.getOriginalModel(), project.getBasedir(), statistics));
+    }
+
+    /**
+     * Writes git versioned pom file of <code>project</code> into its build directory and replaces project pom file.
+     *
+     * @param project    the project
+     * @param statistics statistics to record pom writes
+     * @throws IOException IOException
+     */
+    static void replacePomFileWithinBuildDirectory(MavenProject project, GitVersioningStatistics statistics) throws IOException {
+        File buildDirectory = new File(project.getBuild().getDirectory());
+        if (!buildDirectory.isDirectory() && !buildDirectory.mkdirs()) {
+            throw new IOException("could not create directory " + buildDirectory);
+        }
+        project.setPomFile(writePomFile(project.getOriginalModel(), buildDirectory, statistics));
+    }
+
+    /**
+     * Writes <code>model</code> to git versioned pom file.
+     *
+     * @param model      the project model
+     * @param baseDir    the directory to write to, project directory or build directory
+     * @param statistics statistics to record pom writes
+     * @return the git versioned pom file
+     * @throws IOException IOException
+     */
+    static File writePomFile(Model model, File baseDir, GitVersioningStatistics statistics) throws IOException {
+        File gitVersionedPomFile = new File(baseDir, GIT_VERSIONED_POM_FILE_NAME);
+        long startNanos = statistics.pomWrite.start();
+        ModelUtil.writeModel(model, gitVersionedPomFile);
+        statistics.pomWrite.stop(startNanos);
+        return gitVersionedPomFile;
+    }
+}
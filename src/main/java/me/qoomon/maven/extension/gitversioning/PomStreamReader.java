@@ -0,0 +1,127 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Reads single values from pom files without building the whole model.
+ * <p>
+ * Elements that can not contain any requested value are skipped without being parsed into paths.
+ */
+final class PomStreamReader {
+
+    private static final String GROUP_ID = "project/groupId";
+    private static final String ARTIFACT_ID = "project/artifactId";
+    private static final String VERSION = "project/version";
+    private static final String PARENT_GROUP_ID = "project/parent/groupId";
+    private static final String PARENT_VERSION = "project/parent/version";
+
+    private static final String MODULE = "project/modules/module";
+    private static final String PROFILE_MODULE = "project/profiles/profile/modules/module";
+
+    /**
+     * Reads project GAV, reading stops as soon as all values are present.
+     *
+     * @param pomFile pomFile
+     * @return project GAV, groupId and version are inherited from parent if not present
+     * @throws IOException IOException
+     */
+    static GAV readGAV(File pomFile) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        read(pomFile,
+                path -> path.equals("project") || path.equals("project/parent") || path.equals(GROUP_ID) || path.equals(ARTIFACT_ID) || path.equals(VERSION)
+                        || path.equals(PARENT_GROUP_ID) || path.equals(PARENT_VERSION),
+                (path, value) -> {
+                    values.put(path, value);
+                    return !(values.containsKey(GROUP_ID) && values.containsKey(ARTIFACT_ID) && values.containsKey(VERSION));
+                });
+
+        return new GAV(
+                values.getOrDefault(GROUP_ID, values.get(PARENT_GROUP_ID)),
+                values.get(ARTIFACT_ID),
+                values.getOrDefault(VERSION, values.get(PARENT_VERSION)));
+    }
+
+    /**
+     * Reads module paths, including modules of all profiles.
+     *
+     * @param pomFile pomFile
+     * @return module paths relative to pom file directory
+     * @throws IOException IOException
+     */
+    static List<String> readModules(File pomFile) throws IOException {
+        List<String> modules = new LinkedList<>();
+        read(pomFile,
+                path -> isPathOrParentPath(MODULE, path) || isPathOrParentPath(PROFILE_MODULE, path),
+                (path, value) -> {
+                    if (path.equals(MODULE) || path.equals(PROFILE_MODULE)) {
+                        modules.add(value);
+                    }
+                    return true;
+                });
+        return modules;
+    }
+
+    private static boolean isPathOrParentPath(String path, String candidate) {
+        return path.equals(candidate) || path.startsWith(candidate + "/");
+    }
+
+    /**
+     * @param pomFile      pomFile
+     * @param pathFilter   elements with paths not matching are skipped
+     * @param valueHandler handles text content of leaf element paths, reading stops if handler returns false
+     */
+    private static void read(File pomFile, Predicate<String> pathFilter, BiPredicate<String, String> valueHandler) throws IOException {
+        try (InputStream inputStream = new FileInputStream(pomFile)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+            try {
+                Deque<String> elementPath = new ArrayDeque<>();
+                StringBuilder text = new StringBuilder();
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        elementPath.addLast(reader.getLocalName());
+                        if (!pathFilter.test(String.join("/", elementPath))) {
+                            skipElement(reader);
+                            elementPath.removeLast();
+                        }
+                        text.setLength(0);
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                        text.append(reader.getText());
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (!valueHandler.test(String.join("/", elementPath), text.toString().trim())) {
+                            return;
+                        }
+                        elementPath.removeLast();
+                        text.setLength(0);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(pomFile.toString(), e);
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
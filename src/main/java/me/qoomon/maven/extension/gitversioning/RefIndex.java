@@ -0,0 +1,96 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.IOException;
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Refs by the object they point to, annotated tags are indexed by their peeled object.
+ * <p>
+ * Built by one pass over all refs. Only annotated tags that are not already peeled by packed refs are read,
+ * by one shared {@link RevWalk}.
+ * <p>
+ * Indexes can be reused as long as no ref has changed, see {@link GitRepositoryCache}.
+ */
+final class RefIndex {
+
+    private final Map<String, ObjectId> refObjectIds;
+    private final Map<ObjectId, List<String>> refNamesByObjectId;
+
+    private RefIndex(Map<String, ObjectId> refObjectIds, Map<ObjectId, List<String>> refNamesByObjectId) {
+        this.refObjectIds = refObjectIds;
+        this.refNamesByObjectId = refNamesByObjectId;
+    }
+
+    /**
+     * @param repository the repository
+     * @return index of all non symbolic refs
+     * @throws IOException IOException
+     */
+    static RefIndex build(Repository repository) throws IOException {
+        return build(repository, null);
+    }
+
+    /**
+     * @param repository    the repository
+     * @param previousIndex previous index of <code>repository</code> or null
+     * @return <code>previousIndex</code> if no ref has changed, otherwise new index of all non symbolic refs
+     * @throws IOException IOException
+     */
+    static RefIndex build(Repository repository, RefIndex previousIndex) throws IOException {
+        List<Ref> refs = new ArrayList<>();
+        Map<String, ObjectId> refObjectIds = new HashMap<>();
+        for (Ref ref : repository.getRefDatabase().getRefs()) {
+            if (ref.isSymbolic() || ref.getObjectId() == null || ref.getName().equals(Constants.HEAD)) {
+                continue;
+            }
+            refs.add(ref);
+            refObjectIds.put(ref.getName(), ref.getObjectId());
+        }
+
+        if (previousIndex != null && previousIndex.refObjectIds.equals(refObjectIds)) {
+            return previousIndex;
+        }
+        return build(repository, refs, refObjectIds);
+    }
+
+    private static RefIndex build(Repository repository, List<Ref> refs, Map<String, ObjectId> refObjectIds) throws IOException {
+        Map<ObjectId, List<String>> refNamesByObjectId = new HashMap<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            for (Ref ref : refs) {
+                ObjectId objectId = ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId();
+                if (!ref.isPeeled() && ref.getName().startsWith(Constants.R_TAGS)
+                        && revWalk.getObjectReader().open(objectId).getType() == Constants.OBJ_TAG) {
+                    RevObject object = revWalk.parseAny(objectId);
+                    objectId = revWalk.peel(object);
+                }
+                refNamesByObjectId.computeIfAbsent(objectId.copy(), key -> new ArrayList<>()).add(ref.getName());
+            }
+        }
+        refNamesByObjectId.values().forEach(Collections::sort);
+        return new RefIndex(refObjectIds, refNamesByObjectId);
+    }
+
+    /**
+     * @param objectId the object id e.g. HEAD commit
+     * @param prefix   ref name prefix e.g. <code>refs/tags/</code>
+     * @return sorted names of refs pointing to <code>objectId</code> with <code>prefix</code>, prefix is removed
+     */
+    List<String> getNames(ObjectId objectId, String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String refName : refNamesByObjectId.getOrDefault(objectId, emptyList())) {
+            if (refName.startsWith(prefix)) {
+                names.add(refName.substring(prefix.length()));
+            }
+        }
+        return names;
+    }
+}
@@ -1,36 +1,26 @@
 package me.qoomon.maven.extension.gitversioning;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class StringUtil {
 
     public static String substituteText(String text, Map<String, String> substitutionMap) {
-        String result = text;
-
-        final Pattern placeholderPattern = Pattern.compile("\\$\\{(.+?)}");
-        final Matcher placeholderMatcher = placeholderPattern.matcher(text);
-        while (placeholderMatcher.find()) {
-            String substitutionKey = placeholderMatcher.group(1);
-            String substitutionValue = substitutionMap.get(substitutionKey);
-            result = result.replaceAll("\\$\\{" + substitutionKey + "}", substitutionValue);
-        }
-
-        return result;
+        return VersionTemplate.compile(text).render(substitutionMap::get);
     }
 
     public static String removePrefix(String string, String prefix) {
-
-        String prefixRegex = prefix;
         if (!prefix.startsWith("^")) {
-            prefixRegex = "^" + Pattern.quote(prefix);
+            return string.startsWith(prefix) ? string.substring(prefix.length()) : string;
         }
 
-        return string.replaceFirst(prefixRegex, "");
+        int[] prefixMatch = GuardedPattern.compile(prefix).find(string);
+        if (prefixMatch == null) {
+            return string;
+        }
+        return string.substring(0, prefixMatch[0]) + string.substring(prefixMatch[1]);
     }
 
     /**
@@ -39,30 +29,22 @@ public final class StringUtil {
      * @return a map of group-index and group-name to matching value
      */
     public static Map<String, String> valueGroupMap(String regex, String text) {
-        Map<String, String> result = new HashMap<>();
-        Pattern groupPattern = Pattern.compile(regex);
-        Matcher groupMatcher = groupPattern.matcher(text);
-        if (groupMatcher.find()) {
-            // add group index to value entries
-            for (int i = 0; i <= groupMatcher.groupCount(); i++) {
-                result.put(String.valueOf(i), groupMatcher.group(i));
-            }
-
-            patternGroupNames(groupPattern).forEach(groupName -> result.put(groupName, groupMatcher.group(groupName)));
-        }
-        return result;
+        return GuardedPattern.compile(regex).findGroupValues(text);
     }
 
-    private static Set<String> patternGroupNames(Pattern groupPattern) {
-        Set<String> groupNames = new HashSet<>();
-        Pattern groupNamePattern = Pattern.compile("\\(\\?<(?<name>[a-zA-Z][a-zA-Z0-9]*)>");
-        Matcher groupNameMatcher = groupNamePattern.matcher(groupPattern.toString());
-
-        // add group name to value Entries
-        while (groupNameMatcher.find()) {
-            String groupName = groupNameMatcher.group("name");
-            groupNames.add(groupName);
+    /**
+     * @param value to hash
+     * @return lower case hex SHA-1 hash of UTF-8 encoded <code>value</code>
+     */
+    public static String sha1(String value) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return groupNames;
     }
 }
@@ -0,0 +1,135 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Time budget shared by the optional phases of reading git repository data e.g. working tree status and tag listing.
+ * <p>
+ * Phases of a limited budget run on a separate thread, if the budget runs out the phase is abandoned
+ * and the fallback value is used instead, so waiting time is bounded by the budget.
+ * JGit does not stop on interruption, so an abandoned phase keeps running until it is done.
+ * Phase threads are bounded, phases beyond that wait for a thread within their budget.
+ * Phases of an unlimited budget run on the calling thread.
+ */
+final class TimeBudget {
+
+    static final int PHASE_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService PHASE_EXECUTOR = phaseExecutor();
+
+    private final long budgetMillis;
+    private final long deadlineNanos;
+    private final List<String> phases = new ArrayList<>();
+    private boolean exceeded = false;
+
+    private TimeBudget(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    /**
+     * @param budgetMillis time budget in milliseconds, 0 for unlimited
+     * @return started time budget
+     */
+    static TimeBudget start(long budgetMillis) {
+        return new TimeBudget(budgetMillis);
+    }
+
+    boolean isUnlimited() {
+        return budgetMillis <= 0;
+    }
+
+    /**
+     * @return true if at least one phase was abandoned or skipped
+     */
+    synchronized boolean isExceeded() {
+        return exceeded;
+    }
+
+    long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * Runs <code>task</code> within remaining budget.
+     *
+     * @param phase    phase name, used for logging
+     * @param task     the phase task
+     * @param fallback result if budget runs out
+     * @param <T>      result type
+     * @return result of <code>task</code> or <code>fallback</code>
+     * @throws IOException IOException of <code>task</code>
+     */
+    <T> T run(String phase, Callable<T> task, T fallback) throws IOException {
+        if (isUnlimited()) {
+            return call(task);
+        }
+
+        final long startNanos = System.nanoTime();
+        final long remainingNanos = deadlineNanos - startNanos;
+        if (remainingNanos <= 0) {
+            record(phase + " skipped", true);
+            return fallback;
+        }
+
+        final Future<T> result = PHASE_EXECUTOR.submit(task);
+        try {
+            final T value = result.get(remainingNanos, TimeUnit.NANOSECONDS);
+            record(phase + " " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms", false);
+            return value;
+        } catch (TimeoutException e) {
+            // a phase that has not started yet never starts, a running phase is not interrupted
+            result.cancel(false);
+            record(phase + " abandoned after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms", true);
+            return fallback;
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IOException("git repository phase '" + phase + "' interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private synchronized void record(String phase, boolean exceeded) {
+        phases.add(phase);
+        this.exceeded |= exceeded;
+    }
+
+    /**
+     * @return phase breakdown e.g. <code>tags 3ms, status abandoned after 1997ms</code>
+     */
+    @Override
+    public synchronized String toString() {
+        return String.join(", ", phases);
+    }
+
+    private static ExecutorService phaseExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(PHASE_THREAD_COUNT, PHASE_THREAD_COUNT,
+                1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "git-versioning-phase");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+
+/**
+ * Resolved git based versions shared between maven invocations, e.g. of several build agents using the same directory.
+ * <p>
+ * There is one file per module version, named by the hash of version key and GAV. Version key is the same as the
+ * {@link VersionLock} key. Files are replaced atomically, so concurrent invocations never see
+ * a partially written entry. Least recently used entries are removed, if the number of entries exceeds the limit.
+ */
+class VersionCache {
+
+    private static final String ENTRY_FILE_SUFFIX = ".version";
+    private static final long TEMP_FILE_MAX_AGE = 60 * 60 * 1000L;
+
+    private static final String KEY_PROPERTY = "key";
+
+    private final File directory;
+    private final String key;
+    private final int maxEntries;
+
+    private boolean modified = false;
+
+    /**
+     * @param directory  cache directory, created on first write
+     * @param key        version key, see {@link VersionLock#key(String, String, java.util.List, String)}
+     * @param maxEntries max number of entries kept by {@link #cleanup()}
+     */
+    VersionCache(File directory, String key, int maxEntries) {
+        this.directory = directory;
+        this.key = key;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param gav the project GAV, as defined in pom file
+     * @return the cached git based version or null if there is no valid entry
+     * @throws IOException IOException
+     */
+    GAVGit get(GAV gav) throws IOException {
+        File entryFile = entryFile(gav);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(entryFile), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (FileNotFoundException e) {
+            // removed by a concurrent cleanup
+            return null;
+        }
+        if (!key.equals(properties.getProperty(KEY_PROPERTY))
+                || !gav.getGroupId().equals(properties.getProperty("groupId"))
+                || !gav.getArtifactId().equals(properties.getProperty("artifactId"))
+                || !gav.getVersion().equals(properties.getProperty("version"))
+                || properties.getProperty("gitVersion") == null
+                || properties.getProperty("commit") == null
+                || properties.getProperty("commitRefType") == null
+                || properties.getProperty("commitRefName") == null) {
+            return null;
+        }
+
+        // mark as recently used
+        entryFile.setLastModified(System.currentTimeMillis());
+
+        return new GAVGit(
+                gav.getGroupId(),
+                gav.getArtifactId(),
+                properties.getProperty("gitVersion"),
+                properties.getProperty("commit"),
+                properties.getProperty("commitRefType"),
+                properties.getProperty("commitRefName"));
+    }
+
+    /**
+     * @param gav    the project GAV, as defined in pom file
+     * @param gavGit the git based version
+     * @throws IOException IOException
+     */
+    void put(GAV gav, GAVGit gavGit) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PROPERTY, key);
+        properties.setProperty("groupId", gav.getGroupId());
+        properties.setProperty("artifactId", gav.getArtifactId());
+        properties.setProperty("version", gav.getVersion());
+        properties.setProperty("gitVersion", gavGit.getVersion());
+        properties.setProperty("commit", gavGit.getCommit());
+        properties.setProperty("commitRefType", gavGit.getCommitRefType());
+        properties.setProperty("commitRefName", gavGit.getCommitRefName());
+
+        FileUtil.writeAtomically(entryFile(gav), writer -> properties.store(writer, BuildProperties.projectArtifactId()));
+        modified = true;
+    }
+
+    /**
+     * Removes least recently used entries exceeding the limit and abandoned temp files.
+     * Directory is only listed if entries were written by this instance.
+     *
+     * @throws IOException IOException
+     */
+    void cleanup() throws IOException {
+        if (!modified) {
+            return;
+        }
+        modified = false;
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (file.getName().endsWith(FileUtil.TEMP_FILE_SUFFIX) && file.lastModified() < now - TEMP_FILE_MAX_AGE) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        File[] entryFiles = Arrays.stream(files)
+                .filter(file -> file.getName().endsWith(ENTRY_FILE_SUFFIX))
+                .toArray(File[]::new);
+        if (entryFiles.length <= maxEntries) {
+            return;
+        }
+        long[] lastModified = new long[entryFiles.length];
+        Integer[] order = new Integer[entryFiles.length];
+        for (int i = 0; i < entryFiles.length; i++) {
+            lastModified[i] = entryFiles[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> lastModified[i]));
+        for (int i = 0; i < entryFiles.length - maxEntries; i++) {
+            Files.deleteIfExists(entryFiles[order[i]].toPath());
+        }
+    }
+
+    private File entryFile(GAV gav) {
+        return new File(directory, StringUtil.sha1(key + "\n" + gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion()) + ENTRY_FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,116 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Resolved git based versions of one maven invocation, persisted for subsequent invocations on the same git state.
+ * <p>
+ * The lock key consists of commit, branch, tags (only if no branch is present), configuration hash and extension version.
+ * A lock is only valid for an invocation with the exact same key.
+ */
+class VersionLock {
+
+    static final String FILE_PATH = "target/git-versioning.lock";
+
+    private static final String KEY_PROPERTY = "key";
+
+    private final String key;
+    private final Map<GAV, GAVGit> versions;
+
+    VersionLock(String key) {
+        this(key, new HashMap<>());
+    }
+
+    private VersionLock(String key, Map<GAV, GAVGit> versions) {
+        this.key = key;
+        this.versions = versions;
+    }
+
+    static String key(String commit, String branch, List<String> tags, String configurationHash) {
+        return commit + ":" + branch + ":" + String.join(",", tags) + ":" + configurationHash
+                + ":" + BuildProperties.projectVersion();
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    boolean isEmpty() {
+        return versions.isEmpty();
+    }
+
+    int size() {
+        return versions.size();
+    }
+
+    GAVGit get(GAV gav) {
+        return versions.get(gav);
+    }
+
+    void put(GAV gav, GAVGit gavGit) {
+        versions.put(gav, gavGit);
+    }
+
+    /**
+     * @param lockFile the lock file
+     * @return the version lock or null if lock file does not exist
+     * @throws IOException IOException
+     */
+    static VersionLock read(File lockFile) throws IOException {
+        if (!lockFile.isFile()) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(lockFile), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        Map<GAV, GAVGit> versions = new HashMap<>();
+        for (int index = 0; properties.containsKey(index + ".groupId"); index++) {
+            GAV gav = new GAV(
+                    properties.getProperty(index + ".groupId"),
+                    properties.getProperty(index + ".artifactId"),
+                    properties.getProperty(index + ".version"));
+            GAVGit gavGit = new GAVGit(
+                    gav.getGroupId(),
+                    gav.getArtifactId(),
+                    properties.getProperty(index + ".gitVersion"),
+                    properties.getProperty(index + ".commit"),
+                    properties.getProperty(index + ".commitRefType"),
+                    properties.getProperty(index + ".commitRefName"));
+            versions.put(gav, gavGit);
+        }
+        return new VersionLock(properties.getProperty(KEY_PROPERTY), versions);
+    }
+
+    /**
+     * Writes version lock to lock file, the lock file is replaced atomically,
+     * so concurrent invocations never read a partially written lock file.
+     *
+     * @param lockFile the lock file
+     * @throws IOException IOException
+     */
+    void write(File lockFile) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PROPERTY, key);
+        int index = 0;
+        for (Map.Entry<GAV, GAVGit> entry : versions.entrySet()) {
+            properties.setProperty(index + ".groupId", entry.getKey().getGroupId());
+            properties.setProperty(index + ".artifactId", entry.getKey().getArtifactId());
+            properties.setProperty(index + ".version", entry.getKey().getVersion());
+            properties.setProperty(index + ".gitVersion", entry.getValue().getVersion());
+            properties.setProperty(index + ".commit", entry.getValue().getCommit());
+            properties.setProperty(index + ".commitRefType", entry.getValue().getCommitRefType());
+            properties.setProperty(index + ".commitRefName", entry.getValue().getCommitRefName());
+            index++;
+        }
+
+        FileUtil.writeAtomically(lockFile, writer -> properties.store(writer, BuildProperties.projectArtifactId()));
+    }
+}
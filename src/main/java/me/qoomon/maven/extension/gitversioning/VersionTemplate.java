@@ -0,0 +1,87 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Version format e.g. <code>${branch}-SNAPSHOT</code>, split once into literal text and placeholders,
+ * so rendering is a single pass without regular expressions.
+ */
+final class VersionTemplate {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{(.+?)}");
+
+    /**
+     * literal text at even indexes, placeholder keys at odd indexes
+     */
+    private final String format;
+    private final String[] parts;
+
+    private VersionTemplate(String format, String[] parts) {
+        this.format = format;
+        this.parts = parts;
+    }
+
+    /**
+     * @param format version format
+     * @return compiled template
+     */
+    static VersionTemplate compile(String format) {
+        List<String> parts = new ArrayList<>();
+        Matcher placeholderMatcher = PLACEHOLDER_PATTERN.matcher(format);
+        int literalStart = 0;
+        while (placeholderMatcher.find()) {
+            parts.add(format.substring(literalStart, placeholderMatcher.start()));
+            parts.add(placeholderMatcher.group(1));
+            literalStart = placeholderMatcher.end();
+        }
+        parts.add(format.substring(literalStart));
+        return new VersionTemplate(format, parts.toArray(new String[0]));
+    }
+
+    /**
+     * @param key placeholder key e.g. <code>commit.abbrev</code>
+     * @return true if template contains placeholder <code>key</code>
+     */
+    boolean hasPlaceholder(String key) {
+        for (int i = 1; i < parts.length; i += 2) {
+            if (parts[i].equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param keyPrefix placeholder key prefix e.g. <code>module.</code>
+     * @return true if template contains a placeholder starting with <code>keyPrefix</code>
+     */
+    boolean hasPlaceholderPrefix(String keyPrefix) {
+        for (int i = 1; i < parts.length; i += 2) {
+            if (parts[i].startsWith(keyPrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param values placeholder values by key, null if there is no value
+     * @return rendered text
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    String render(Function<String, String> values) {
+        StringBuilder text = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i += 2) {
+            String value = values.apply(parts[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("unknown placeholder '${" + parts[i] + "}' in version format '" + format + "'");
+            }
+            text.append(value).append(parts[i + 1]);
+        }
+        return text.toString();
+    }
+}
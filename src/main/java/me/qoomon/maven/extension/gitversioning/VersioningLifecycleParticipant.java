@@ -0,0 +1,51 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.building.ModelProcessor;
+import org.codehaus.plexus.component.annotations.Component;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+/**
+ * Session hooks of {@link VersioningModelProcessor}.
+ */
+@Component(role = AbstractMavenLifecycleParticipant.class, hint = "git-versioning")
+public class VersioningLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+    private final ModelProcessor modelProcessor;
+
+    @Inject
+    public VersioningLifecycleParticipant(final ModelProcessor modelProcessor) {
+        this.modelProcessor = modelProcessor;
+    }
+
+    @Override
+    public void afterSessionStart(MavenSession session) throws MavenExecutionException {
+        if (!(modelProcessor instanceof VersioningModelProcessor)) {
+            return;
+        }
+        try {
+            ((VersioningModelProcessor) modelProcessor).initialize();
+        } catch (IOException e) {
+            throw new MavenExecutionException("Git Versioning Lifecycle Participant", e);
+        }
+    }
+
+    @Override
+    public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
+        if (!(modelProcessor instanceof VersioningModelProcessor)) {
+            return;
+        }
+        try {
+            ((VersioningModelProcessor) modelProcessor).writeVersionLock();
+            ((VersioningModelProcessor) modelProcessor).cleanupVersionCache();
+        } catch (IOException e) {
+            throw new MavenExecutionException("Git Versioning Lifecycle Participant", e);
+        } finally {
+            ((VersioningModelProcessor) modelProcessor).closeRepositories();
+        }
+    }
+}
@@ -4,8 +4,6 @@ import com.google.inject.Key;
 import com.google.inject.OutOfScopeException;
 import me.qoomon.maven.extension.gitversioning.config.VersioningConfiguration;
 import me.qoomon.maven.extension.gitversioning.config.VersioningConfigurationProvider;
-import me.qoomon.maven.extension.gitversioning.config.model.VersionFormatDescription;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.building.Source;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.*;
@@ -14,20 +12,19 @@ import org.apache.maven.model.building.ModelProcessor;
 import org.apache.maven.session.scope.internal.SessionScope;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.Logger;
-import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 
 import javax.inject.Inject;
+import javax.management.JMException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static me.qoomon.maven.extension.gitversioning.StringUtil.*;
 
 
 /**
@@ -38,16 +35,25 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
 
     private final Logger logger;
     // for preventing unnecessary logging
-    private final Set<String> loggingBouncer = new HashSet<>();
+    private final Set<String> loggingBouncer = ConcurrentHashMap.newKeySet();
 
-    private final Map<File, GitRepoData> gitRepoDataCache = new HashMap<>();
-    private final Map<GAV, GAVGit> gitVersionCache = new HashMap<>();
+    private final Map<ProjectVersionKey, GAVGit> gitVersionCache = new ConcurrentHashMap<>();
+    private final Map<ProcessedModelKey, Model> processedModelCache = new ConcurrentHashMap<>();
+    private final Set<File> versionedPomFiles = ConcurrentHashMap.newKeySet();
 
     private final SessionScope sessionScope;
     private final VersioningConfigurationProvider configurationProvider;
 
     private MavenSession mavenSession;  // can not be injected cause it is not always available
     private VersioningConfiguration configuration;
+    private GitVersionResolver gitVersionResolver;
+
+    private VersionLock versionLock;
+    private boolean versionLockModified = false;
+
+    private VersionCache versionCache;
+
+    private final GitVersioningStatistics statistics = new GitVersioningStatistics();
 
     private boolean initialized = false;
 
@@ -57,24 +63,64 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
         this.logger = logger;
         this.sessionScope = sessionScope;
         this.configurationProvider = configurationProvider;
+
+        statistics.gitVersionCache.setSize(gitVersionCache::size);
+        statistics.processedModelCache.setSize(processedModelCache::size);
+        statistics.versionLock.setSize(() -> versionLock != null ? versionLock.size() : 0);
+        try {
+            GitVersioningStatistics.register(statistics);
+        } catch (JMException | RuntimeException e) {
+            logger.debug("could not register " + GitVersioningMXBean.OBJECT_NAME, e);
+        }
     }
 
     @Override
     public Model read(File input, Map<String, ?> options) throws IOException {
-        final Model projectModel = super.read(input, options);
-        return processModel(projectModel, options);
+        return readProcessedModel(input, options, () -> super.read(input, options));
     }
 
     @Override
     public Model read(Reader input, Map<String, ?> options) throws IOException {
-        final Model projectModel = super.read(input, options);
-        return processModel(projectModel, options);
+        return readProcessedModel(sourceFile(options), options, () -> super.read(input, options));
     }
 
     @Override
     public Model read(InputStream input, Map<String, ?> options) throws IOException {
-        final Model projectModel = super.read(input, options);
-        return processModel(projectModel, options);
+        return readProcessedModel(sourceFile(options), options, () -> super.read(input, options));
+    }
+
+    /**
+     * Maven reads the same pom file several times per session (project building, parent resolution, plugins),
+     * so processed models are cached per pom file state and handed out as copies.
+     */
+    private Model readProcessedModel(File pomFile, Map<String, ?> options, ModelSupplier modelSupplier) throws IOException {
+        final ProcessedModelKey cacheKey = ProcessedModelKey.of(pomFile, options);
+        if (cacheKey != null) {
+            final Model cachedModel = processedModelCache.get(cacheKey);
+            if (cachedModel != null) {
+                statistics.processedModelCache.hit();
+                logger.debug("processed model cache hit - " + pomFile);
+                return cachedModel.clone();
+            }
+            statistics.processedModelCache.miss();
+        }
+
+        final Model projectModel = modelSupplier.get();
+        final Model processedModel = processModel(projectModel, options);
+
+        // models are only cached if processing took place, otherwise they may be processed on a later read
+        if (cacheKey != null && processedModel != projectModel) {
+            processedModelCache.put(cacheKey, processedModel.clone());
+        }
+        return processedModel;
+    }
+
+    private static File sourceFile(Map<String, ?> options) {
+        final Source pomSource = (Source) options.get(ModelProcessor.SOURCE);
+        if (pomSource == null || pomSource.getLocation() == null) {
+            return null;
+        }
+        return new File(pomSource.getLocation());
     }
 
     private Model processModel(Model projectModel, Map<String, ?> options) throws IOException {
@@ -82,19 +128,7 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
 
             // ---------------- initialize ---------------------------------------
 
-            if (!initialized) {
-                logger.info("");
-                logger.info("--- " + BuildProperties.projectArtifactId() + ":" + BuildProperties.projectVersion() + " ---");
-
-                try {
-                    mavenSession = sessionScope.scope(Key.get(MavenSession.class), null).get();
-                    configuration = configurationProvider.get();
-                } catch (OutOfScopeException ex) {
-                    logger.warn("skip - no maven session present");
-                }
-
-                initialized = true;
-            }
+            initialize();
 
             if (mavenSession == null) {
                 return projectModel;
@@ -107,6 +141,11 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
                 return projectModel;
             }
 
+            if (configuration.isRevisionEnabled()) {
+                // versions are interpolated by maven from CI friendly properties, see setRevisionProperties()
+                return projectModel;
+            }
+
             final Source pomSource = (Source) options.get(ModelProcessor.SOURCE);
             if (pomSource == null) {
                 logger.debug("skip - unknown pom source");
@@ -119,7 +158,7 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
                 return projectModel;
             }
 
-            if (projectPomFile.getName().equals(VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME)) {
+            if (projectPomFile.getName().equals(PomReplacement.GIT_VERSIONED_POM_FILE_NAME)) {
                 logger.debug("skip - git versioned pom - " + projectPomFile);
                 return projectModel;
             }
@@ -139,6 +178,9 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
                 logger.info(projectGav.getArtifactId() + ":" + projectGav.getVersion()
                         + " - " + projectGitBasedVersion.getCommitRefType() + ": " + projectGitBasedVersion.getCommitRefName()
                         + " -> version: " + projectGitBasedVersion.getVersion());
+                if (configuration.isModuleStatusEnabled() && !gitVersionResolver.isClean(projectPomFile.getParentFile())) {
+                    logger.warn("Git working tree is not clean for module " + projectGav.getArtifactId() + " - " + projectPomFile.getParentFile());
+                }
             }
 
             final Model virtualProjectModel = projectModel.clone();
@@ -151,6 +193,15 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
             virtualProjectModel.addProperty("project.commit", projectGitBasedVersion.getCommit());
             virtualProjectModel.addProperty("project.tag", projectGitBasedVersion.getCommitRefType().equals("tag") ? projectGitBasedVersion.getCommitRefName() : "");
             virtualProjectModel.addProperty("project.branch", projectGitBasedVersion.getCommitRefType().equals("branch") ? projectGitBasedVersion.getCommitRefName() : "");
+            virtualProjectModel.addProperty("project.commit.short", GitUtil.shortCommit(projectGitBasedVersion.getCommit()));
+            virtualProjectModel.addProperty("project.commitRefType", projectGitBasedVersion.getCommitRefType());
+            if (configuration.isOutputTimestampEnabled()) {
+                final Long commitTime = gitVersionResolver.getCommitTime(projectPomFile.getParentFile(), projectGitBasedVersion.getCommit());
+                if (commitTime != null) {
+                    logger.debug("set project.build.outputTimestamp to commit time in " + projectPomFile);
+                    virtualProjectModel.addProperty("project.build.outputTimestamp", GitVersionResolver.formatCommitInstant(commitTime));
+                }
+            }
 
 
             // ---------------- process parent -----------------------------------
@@ -181,9 +232,8 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
                 }
             }
 
-            // ---------------- add plugin ---------------------------------------
-
-            addBuildPlugin(virtualProjectModel); // has to be removed from model by plugin itself
+            // pom file is replaced by git versioned pom file later on, see PomReplacement
+            versionedPomFiles.add(projectPomFile.getAbsoluteFile());
 
             return virtualProjectModel;
         } catch (Exception e) {
@@ -191,6 +241,91 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
         }
     }
 
+    /**
+     * Initializes configuration and starts reading git repository data of the multi module project directory
+     * in background, unless all versions are provided by version lock.
+     * <p>
+     * Called as soon as the maven session is present, so git I/O overlaps maven's own startup work.
+     * Synchronized, as models may be read by concurrent threads of parallel builds.
+     */
+    synchronized void initialize() throws IOException {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        logger.info("");
+        logger.info("--- " + BuildProperties.projectArtifactId() + ":" + BuildProperties.projectVersion() + " ---");
+
+        try {
+            mavenSession = sessionScope.scope(Key.get(MavenSession.class), null).get();
+            configuration = configurationProvider.get();
+            gitVersionResolver = new GitVersionResolver(logger, configuration, statistics);
+            if (!configuration.isEnabled()) {
+                return;
+            }
+            if (configuration.isVersionLockEnabled()) {
+                versionLock = loadVersionLock();
+            }
+            if (configuration.getVersionCacheDirectory() != null && versionLock != null) {
+                versionCache = createVersionCache(versionLock.getKey());
+            }
+            if (configuration.isRevisionEnabled()) {
+                setRevisionProperties();
+            } else if (versionLock == null || versionLock.isEmpty()) {
+                gitVersionResolver.prefetchModuleGitRepoData();
+            }
+        } catch (OutOfScopeException ex) {
+            logger.warn("skip - no maven session present");
+        }
+    }
+
+    /**
+     * Resolves version of multi module project pom and sets it as CI friendly user property <code>revision</code>,
+     * <code>sha1</code> and <code>changelist</code> are cleared, so <code>${revision}${sha1}${changelist}</code>
+     * results in resolved version.
+     * <p>
+     * Project models are neither modified nor written, maven interpolates versions by itself.
+     */
+    private void setRevisionProperties() throws IOException {
+        final Properties userProperties = mavenSession.getRequest().getUserProperties();
+        if (userProperties.containsKey("revision")) {
+            logger.info("skip - revision is provided - " + userProperties.getProperty("revision"));
+            return;
+        }
+
+        final File projectDir = mavenSession.getRequest().getMultiModuleProjectDirectory();
+        final File projectPomFile = new File(projectDir, "pom.xml");
+        if (!projectPomFile.isFile()) {
+            logger.warn("skip - no pom file present - " + projectPomFile);
+            return;
+        }
+
+        final Model projectModel = ModelUtil.readModel(projectPomFile);
+        final GAV projectPomGav = GAV.of(projectModel);
+        if (projectPomGav.getVersion() == null) {
+            logger.warn("skip - invalid model - 'version' is missing - " + projectPomFile);
+            return;
+        }
+        final GAV projectGav = new GAV(projectPomGav.getGroupId(), projectPomGav.getArtifactId(),
+                interpolateRevision(projectPomGav.getVersion(), projectModel.getProperties()));
+        final GAVGit projectGitBasedVersion = determineGitBasedProjectVersion(projectGav, projectDir);
+
+        logger.info(projectGav.getArtifactId() + ":" + projectGav.getVersion()
+                + " - " + projectGitBasedVersion.getCommitRefType() + ": " + projectGitBasedVersion.getCommitRefName()
+                + " -> revision: " + projectGitBasedVersion.getVersion());
+        userProperties.setProperty("revision", projectGitBasedVersion.getVersion());
+        userProperties.setProperty("sha1", "");
+        userProperties.setProperty("changelist", "");
+    }
+
+    private static String interpolateRevision(String version, Properties properties) {
+        for (String property : Arrays.asList("revision", "sha1", "changelist")) {
+            version = version.replace("${" + property + "}", properties.getProperty(property, ""));
+        }
+        return version;
+    }
+
     /**
      * checks if <code>pomFile</code> is part of a project
      *
@@ -205,163 +340,326 @@ public class VersioningModelProcessor extends DefaultModelProcessor {
                 && pomFile.getName().endsWith(".xml");
     }
 
-    private void addBuildPlugin(Model model) {
-        GAV projectGav = GAV.of(model);
-        logger.debug(projectGav + " temporary add build plugin");
+    /**
+     * @param pomFile the pom file
+     * @return true if project model of <code>pomFile</code> has been versioned
+     */
+    boolean isVersionedPomFile(File pomFile) {
+        return pomFile != null && versionedPomFiles.contains(pomFile.getAbsoluteFile());
+    }
 
-        Plugin projectPlugin = VersioningPomReplacementMojo.asPlugin();
+    /**
+     * @return statistics registered as {@link GitVersioningMXBean}
+     */
+    GitVersioningStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return resolver of current session or null if git versioning is disabled
+     */
+    GitVersionResolver getGitVersionResolver() {
+        return configuration != null && configuration.isEnabled() ? gitVersionResolver : null;
+    }
 
-        PluginExecution execution = new PluginExecution();
-        execution.setId(VersioningPomReplacementMojo.GOAL);
-        execution.getGoals().add(VersioningPomReplacementMojo.GOAL);
-        projectPlugin.getExecutions().add(execution);
+    /**
+     * @return the directory containing the <code>.mvn</code> directory or null if no maven session is present
+     */
+    File getMultiModuleProjectDirectory() {
+        return mavenSession != null ? mavenSession.getRequest().getMultiModuleProjectDirectory() : null;
+    }
 
-        if (model.getBuild() == null) {
-            model.setBuild(new Build());
+    /**
+     * @param projectDir a directory within the git repository of the project
+     * @param gav        GAV as defined in pom file
+     * @return git based project version or null if project has not been versioned within current session
+     */
+    String getProjectVersion(File projectDir, GAV gav) throws IOException {
+        final GitVersionResolver resolver = getGitVersionResolver();
+        if (resolver == null || projectDir == null) {
+            return null;
         }
-        model.getBuild().getPlugins().add(projectPlugin);
+        final GAVGit gitBasedProjectVersion = gitVersionCache.get(new ProjectVersionKey(resolver.getGitDir(projectDir), gav));
+        return gitBasedProjectVersion != null ? gitBasedProjectVersion.getVersion() : null;
     }
 
-    private GAVGit determineGitBasedProjectVersion(GAV gav, File gitDir) throws IOException {
-        GAVGit gitBasedProjectVersion = gitVersionCache.get(gav);
-        if (gitBasedProjectVersion == null) {
-            final GitRepoData gitRepoData = getGitRepoData(gitDir);
-
-            // default versioning
-            String projectCommitRefType = "commit";
-            String projectCommitRefName = gitRepoData.getCommit();
-            VersionFormatDescription projectVersionFormatDescription = configuration.getCommitVersionDescription();
-
-            // branch versioning
-            String gitRepoBranch = gitRepoData.getBranch();
-            if (gitRepoBranch != null) {
-                for (VersionFormatDescription versionFormatDescription : configuration.getBranchVersionDescriptions()) {
-                    if (gitRepoBranch.matches(versionFormatDescription.pattern)) {
-                        projectCommitRefType = "branch";
-                        projectCommitRefName = gitRepoBranch;
-                        projectVersionFormatDescription = versionFormatDescription;
-                        break;
-                    }
-                }
+    /**
+     * @return true if git versioned pom files should be written to build directories
+     */
+    boolean isTargetPomEnabled() {
+        return configuration != null && configuration.isTargetPomEnabled();
+    }
+
+    /**
+     * Versions are cached per git repository and GAV, version lock and version cache only apply to
+     * projects of the git repository of the multi module project directory.
+     */
+    private GAVGit determineGitBasedProjectVersion(GAV gav, File projectDir) throws IOException {
+        final long startNanos = statistics.projectVersion.start();
+        final File gitDir = gitVersionResolver.getGitDir(projectDir);
+        final ProjectVersionKey projectVersionKey = new ProjectVersionKey(gitDir, gav);
+        final boolean multiModuleProjectRepository = gitDir != null
+                && gitDir.equals(gitVersionResolver.getGitDir(mavenSession.getRequest().getMultiModuleProjectDirectory()));
+        final VersionLock versionLock = multiModuleProjectRepository ? this.versionLock : null;
+        final VersionCache versionCache = multiModuleProjectRepository ? getVersionCache() : null;
+
+        GAVGit gitBasedProjectVersion = gitVersionCache.get(projectVersionKey);
+        if (gitBasedProjectVersion != null) {
+            statistics.gitVersionCache.hit();
+        } else {
+            statistics.gitVersionCache.miss();
+        }
+        if (gitBasedProjectVersion == null && versionLock != null) {
+            gitBasedProjectVersion = versionLock.get(gav);
+            if (gitBasedProjectVersion != null) {
+                statistics.versionLock.hit();
+                gitVersionCache.put(projectVersionKey, gitBasedProjectVersion);
             } else {
-                // tag versioning
-                List<String> gitRepoTags = gitRepoData.getTags();
-                if (!gitRepoTags.isEmpty()) {
-                    for (VersionFormatDescription versionFormatDescription : configuration.getTagVersionDescriptions()) {
-                        String gitRepoVersionTag = gitRepoTags.stream().sequential()
-                                .filter(tag -> tag.matches(versionFormatDescription.pattern))
-                                .max((tagLeft, tagRight) -> {
-                                    String versionLeft = removePrefix(tagLeft, versionFormatDescription.prefix);
-                                    String versionRight = removePrefix(tagRight, versionFormatDescription.prefix);
-                                    DefaultArtifactVersion tagVersionLeft = new DefaultArtifactVersion(versionLeft);
-                                    DefaultArtifactVersion tagVersionRight = new DefaultArtifactVersion(versionRight);
-                                    return tagVersionLeft.compareTo(tagVersionRight);
-                                }).orElse(null);
-                        if (gitRepoVersionTag != null) {
-                            projectCommitRefType = "tag";
-                            projectCommitRefName = gitRepoVersionTag;
-                            projectVersionFormatDescription = versionFormatDescription;
-                            break;
-                        }
-                    }
+                statistics.versionLock.miss();
+            }
+        }
+        if (gitBasedProjectVersion == null && versionCache != null) {
+            gitBasedProjectVersion = versionCache.get(gav);
+            if (gitBasedProjectVersion != null) {
+                statistics.versionCache.hit();
+                logger.debug("version cache hit - " + gav);
+                gitVersionCache.put(projectVersionKey, gitBasedProjectVersion);
+                if (versionLock != null) {
+                    versionLock.put(gav, gitBasedProjectVersion);
+                    versionLockModified = true;
                 }
+            } else {
+                statistics.versionCache.miss();
             }
+        }
+        if (gitBasedProjectVersion == null) {
+            gitBasedProjectVersion = gitVersionResolver.resolve(gav, projectDir);
+            gitVersionCache.put(projectVersionKey, gitBasedProjectVersion);
+            // versions based on incomplete git repository data, see time budget, are not persisted
+            final boolean complete = gitVersionResolver.getGitRepoData(projectDir).isComplete();
+            if (versionLock != null && complete) {
+                versionLock.put(gav, gitBasedProjectVersion);
+                versionLockModified = true;
+            }
+            if (versionCache != null && complete) {
+                versionCache.put(gav, gitBasedProjectVersion);
+            }
+        }
+        statistics.projectVersion.stop(startNanos);
+        return gitBasedProjectVersion;
 
-            Map<String, String> projectVersionDataMap = buildCommonVersionDataMap(gav);
-            projectVersionDataMap.put("commit", gitRepoData.getCommit());
-            projectVersionDataMap.put("commit.short", gitRepoData.getCommit().length() <= 7 ? gitRepoData.getCommit() : gitRepoData.getCommit().substring(0, 7));
-            projectVersionDataMap.put(projectCommitRefType, removePrefix(projectCommitRefName, projectVersionFormatDescription.prefix));
-            projectVersionDataMap.putAll(valueGroupMap(projectVersionFormatDescription.pattern, projectCommitRefName));
-
-            String versionGit = escapeVersion(substituteText(projectVersionFormatDescription.versionFormat, projectVersionDataMap));
+    }
 
-            gitBasedProjectVersion = new GAVGit(
-                    gav.getGroupId(),
-                    gav.getArtifactId(),
-                    versionGit,
-                    gitRepoData.getCommit(),
-                    projectCommitRefType,
-                    removePrefix(projectCommitRefName, projectVersionFormatDescription.prefix)
-            );
-            gitVersionCache.put(gav, gitBasedProjectVersion);
+    /**
+     * Without version lock, the version cache key is derived from provided commit and branch or tag
+     * or from the git repository data of the multi module project directory, which is read in background,
+     * see {@link #initialize()}. Incomplete git repository data, see time budget, does not determine a reliable key.
+     *
+     * @return version cache or null if version cache is disabled or git repository data is incomplete
+     */
+    private VersionCache getVersionCache() throws IOException {
+        if (versionCache == null && configuration.getVersionCacheDirectory() != null) {
+            final String providedVersionKey = providedVersionKey();
+            if (providedVersionKey != null) {
+                versionCache = createVersionCache(providedVersionKey);
+                return versionCache;
+            }
+            final GitRepoData gitRepoData = gitVersionResolver.getGitRepoData(mavenSession.getRequest().getMultiModuleProjectDirectory());
+            if (gitRepoData.isComplete()) {
+                versionCache = createVersionCache(versionKey(gitRepoData));
+            }
         }
-        return gitBasedProjectVersion;
+        return versionCache;
+    }
 
+    private VersionCache createVersionCache(String key) {
+        logger.debug("use version cache " + configuration.getVersionCacheDirectory());
+        return new VersionCache(configuration.getVersionCacheDirectory(), key, configuration.getVersionCacheSize());
     }
 
-    private GitRepoData getGitRepoData(File gitDir) throws IOException {
-        GitRepoData gitRepoData;
-        FileRepositoryBuilder repositoryBuilder = new FileRepositoryBuilder().findGitDir(gitDir);
-        gitDir = repositoryBuilder.getGitDir();
-        gitRepoData = gitRepoDataCache.get(gitDir);
-        if (gitRepoData == null) {
-            logger.debug("git directory " + repositoryBuilder.getGitDir());
-            try (Repository repository = repositoryBuilder.build()) {
-
-                final Status status = GitUtil.getStatus(repository);
-                if (!status.isClean()) {
-                    logger.warn("Git working tree is not clean " + repository.getDirectory());
-                }
+    /**
+     * Loads the version lock, if it matches current git state, otherwise a new empty version lock is created.
+     */
+    private VersionLock loadVersionLock() throws IOException {
+        final File lockFile = new File(mavenSession.getRequest().getMultiModuleProjectDirectory(), VersionLock.FILE_PATH);
+        final String lockKey = determineVersionKey();
+
+        final VersionLock lock = VersionLock.read(lockFile);
+        if (lock != null && lock.getKey().equals(lockKey)) {
+            logger.info("use version lock " + lockFile);
+            return lock;
+        }
+        if (lock != null) {
+            logger.info("ignore outdated version lock " + lockFile);
+        }
+        return new VersionLock(lockKey);
+    }
 
-                String headCommit = GitUtil.getHeadCommit(repository);
+    /**
+     * If HEAD is attached to a branch, only HEAD is read, tags do not affect branch versions.
+     * If HEAD is detached, all refs are read for tags and branch inference. Working tree status is not checked.
+     * If commit and branch or tag are provided, git repository is not accessed at all.
+     *
+     * @return key of git state and configuration, see {@link VersionLock#key(String, String, List, String)}
+     */
+    private String determineVersionKey() throws IOException {
+        final String providedVersionKey = providedVersionKey();
+        if (providedVersionKey != null) {
+            return providedVersionKey;
+        }
+
+        final File multiModuleProjectDirectory = mavenSession.getRequest().getMultiModuleProjectDirectory();
+        try (Repository repository = GitUtil.openRepository(multiModuleProjectDirectory)) {
+            final String providedBranch = configuration.getProvidedBranch();
+            final String headBranch = providedBranch != null
+                    ? (providedBranch.isEmpty() ? null : providedBranch)
+                    : GitUtil.getHeadBranch(repository);
+            if (headBranch != null) {
                 final String providedCommit = configuration.getProvidedCommit();
-                if (providedCommit != null ) {
-                    headCommit = providedCommit;
-                }
+                final String headCommit = providedCommit != null ? providedCommit : GitUtil.getHeadCommit(repository);
+                return VersionLock.key(headCommit, headBranch, emptyList(), configuration.getHash());
+            }
+            return versionKey(gitVersionResolver.readGitRepoData(repository));
+        }
+    }
 
-                String headBranch = GitUtil.getHeadBranch(repository);
-                final String providedBranch = configuration.getProvidedBranch();
-                if (providedBranch != null) {
-                    headBranch = providedBranch.isEmpty() ? null : providedBranch;
-                }
+    /**
+     * @return version key or null if commit and branch or tag are not provided
+     */
+    private String providedVersionKey() {
+        final String providedCommit = configuration.getProvidedCommit();
+        final String providedBranch = configuration.getProvidedBranch();
+        final String providedTag = configuration.getProvidedTag();
+        if (providedCommit != null && providedBranch != null && !providedBranch.isEmpty()) {
+            return VersionLock.key(providedCommit, providedBranch, emptyList(), configuration.getHash());
+        }
+        if (providedCommit != null && providedTag != null) {
+            final List<String> headTags = providedTag.isEmpty() ? emptyList() : singletonList(providedTag);
+            return VersionLock.key(providedCommit, null, headTags, configuration.getHash());
+        }
+        return null;
+    }
 
-                List<String> headTags = GitUtil.getHeadTags(repository);
-                final String providedTag = configuration.getProvidedTag();
-                if (providedTag != null) {
-                    headTags = providedTag.isEmpty() ? emptyList() : singletonList(providedTag);
-                }
+    private String versionKey(GitRepoData gitRepoData) {
+        final List<String> headTags = gitRepoData.getBranch() == null ? gitRepoData.getTags() : emptyList();
+        return VersionLock.key(gitRepoData.getCommit(), gitRepoData.getBranch(), headTags, configuration.getHash());
+    }
 
-                gitRepoData = new GitRepoData(headCommit, headBranch, headTags);
-                gitRepoDataCache.put(gitDir, gitRepoData);
-            }
+    /**
+     * Removes least recently used version cache entries, if version cache is enabled.
+     */
+    void cleanupVersionCache() throws IOException {
+        if (versionCache != null) {
+            versionCache.cleanup();
+        }
+    }
+
+    /**
+     * Closes git repositories shared within this session.
+     */
+    void closeRepositories() {
+        if (gitVersionResolver != null) {
+            gitVersionResolver.closeRepositories();
         }
-        return gitRepoData;
     }
 
-    private static Map<String, String> buildCommonVersionDataMap(GAV gav) {
-        Map<String, String> versionDataMap = new HashMap<>();
-        versionDataMap.put("version", gav.getVersion());
-        versionDataMap.put("version.release", gav.getVersion().replaceFirst("-SNAPSHOT$", ""));
-        return versionDataMap;
+    /**
+     * Writes all versions resolved within this session to the version lock file, if version lock is enabled.
+     */
+    void writeVersionLock() throws IOException {
+        if (versionLock == null || !versionLockModified) {
+            return;
+        }
+        final File lockFile = new File(mavenSession.getRequest().getMultiModuleProjectDirectory(), VersionLock.FILE_PATH);
+        logger.debug("write version lock " + lockFile);
+        versionLock.write(lockFile);
+        versionLockModified = false;
     }
 
-    private static String escapeVersion(String version) {
-        return version.replace("/", "-");
+    private interface ModelSupplier {
+        Model get() throws IOException;
     }
 
-    private static class GitRepoData {
+    private static class ProjectVersionKey {
+
+        private final File gitDir;
+        private final GAV gav;
+
+        private ProjectVersionKey(File gitDir, GAV gav) {
+            this.gitDir = gitDir;
+            this.gav = gav;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
 
-        private final String commit;
-        private final String branch;
-        private final List<String> tags;
+            ProjectVersionKey that = (ProjectVersionKey) o;
 
-        GitRepoData(String commit, String branch, List<String> tags) {
+            if (gitDir != null ? !gitDir.equals(that.gitDir) : that.gitDir != null)
+                return false;
+            return gav.equals(that.gav);
+        }
 
-            this.commit = commit;
-            this.branch = branch;
-            this.tags = tags;
+        @Override
+        public int hashCode() {
+            int result = gitDir != null ? gitDir.hashCode() : 0;
+            result = 31 * result + gav.hashCode();
+            return result;
         }
+    }
+
+    private static class ProcessedModelKey {
 
-        public String getCommit() {
-            return commit;
+        private final String canonicalPath;
+        private final long length;
+        private final long lastModified;
+        private final boolean strict;
+
+        private ProcessedModelKey(String canonicalPath, long length, long lastModified, boolean strict) {
+            this.canonicalPath = canonicalPath;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.strict = strict;
+        }
+
+        static ProcessedModelKey of(File pomFile, Map<String, ?> options) throws IOException {
+            if (!isProjectPom(pomFile)) {
+                return null;
+            }
+            Object strictOption = options.get(ModelProcessor.IS_STRICT);
+            boolean strict = strictOption == null || Boolean.parseBoolean(strictOption.toString());
+            return new ProcessedModelKey(pomFile.getCanonicalPath(), pomFile.length(), pomFile.lastModified(), strict);
         }
 
-        public String getBranch() {
-            return branch;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            ProcessedModelKey that = (ProcessedModelKey) o;
+
+            if (length != that.length)
+                return false;
+            if (lastModified != that.lastModified)
+                return false;
+            if (strict != that.strict)
+                return false;
+            return canonicalPath.equals(that.canonicalPath);
         }
 
-        public List<String> getTags() {
-            return tags;
+        @Override
+        public int hashCode() {
+            int result = canonicalPath.hashCode();
+            result = 31 * result + Long.hashCode(length);
+            result = 31 * result + Long.hashCode(lastModified);
+            result = 31 * result + (strict ? 1 : 0);
+            return result;
         }
     }
 }
@@ -0,0 +1,94 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.apache.maven.eventspy.AbstractEventSpy;
+import org.apache.maven.eventspy.EventSpy;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.model.building.ModelProcessor;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.logging.Logger;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Replaces pom file of a versioned project with git versioned pom file.
+ * <p>
+ * By default git versioned pom file is written into project directory,
+ * right before the first mojo execution of the project bound to <code>prepare-package</code> or a later phase,
+ * so builds not reaching <code>prepare-package</code> e.g. <code>mvn validate</code> leave project directories untouched.
+ * <p>
+ * If git versioned pom files should be written to build directories,
+ * pom file is replaced right before the first mojo execution of the project that is not part of clean lifecycle.
+ */
+@Component(role = EventSpy.class, hint = "git-versioning")
+public class VersioningPomReplacementEventSpy extends AbstractEventSpy {
+
+    private static final Set<String> CLEAN_LIFECYCLE_PHASES = new HashSet<>(Arrays.asList("pre-clean", "clean", "post-clean"));
+    private static final String CLEAN_PLUGIN_ARTIFACT_ID = "maven-clean-plugin";
+    private static final Set<String> PACKAGING_LIFECYCLE_PHASES = new HashSet<>(Arrays.asList(
+            "prepare-package", "package", "pre-integration-test", "integration-test", "post-integration-test",
+            "verify", "install", "deploy"));
+
+    private final Logger logger;
+    private final ModelProcessor modelProcessor;
+
+    private final Set<MavenProject> replacedProjects = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
+    @Inject
+    public VersioningPomReplacementEventSpy(final Logger logger, final ModelProcessor modelProcessor) {
+        this.logger = logger;
+        this.modelProcessor = modelProcessor;
+    }
+
+    @Override
+    public void onEvent(Object event) {
+        if (!(event instanceof ExecutionEvent) || !(modelProcessor instanceof VersioningModelProcessor)) {
+            return;
+        }
+        ExecutionEvent executionEvent = (ExecutionEvent) event;
+        if (executionEvent.getType() == ExecutionEvent.Type.SessionStarted) {
+            replacedProjects.clear();
+            return;
+        }
+        if (executionEvent.getType() != ExecutionEvent.Type.MojoStarted) {
+            return;
+        }
+
+        VersioningModelProcessor versioningModelProcessor = (VersioningModelProcessor) modelProcessor;
+        MavenProject project = executionEvent.getProject();
+        boolean targetPomEnabled = versioningModelProcessor.isTargetPomEnabled();
+        MojoExecution mojoExecution = executionEvent.getMojoExecution();
+        if ((targetPomEnabled ? isCleanMojoExecution(mojoExecution) : !isPackagingMojoExecution(mojoExecution))
+                || replacedProjects.contains(project)
+                || !versioningModelProcessor.isVersionedPomFile(project.getFile())) {
+            return;
+        }
+        replacedProjects.add(project);
+
+        try {
+            if (targetPomEnabled) {
+                PomReplacement.replacePomFileWithinBuildDirectory(project, versioningModelProcessor.getStatistics());
+            } else {
+                PomReplacement.replacePomFile(project, versioningModelProcessor.getStatistics());
+            }
+            logger.debug(project.getArtifact() + " replace project pom file with " + project.getFile());
+        } catch (IOException e) {
+            // exceptions of event spies are logged only, so build result is marked as failed explicitly
+            logger.error("Git Versioning Pom Replacement - " + project.getArtifact(), e);
+            executionEvent.getSession().getResult().addException(e);
+        }
+    }
+
+    private static boolean isCleanMojoExecution(MojoExecution mojoExecution) {
+        return mojoExecution != null
+                && (CLEAN_LIFECYCLE_PHASES.contains(mojoExecution.getLifecyclePhase())
+                || CLEAN_PLUGIN_ARTIFACT_ID.equals(mojoExecution.getArtifactId()));
+    }
+
+    private static boolean isPackagingMojoExecution(MojoExecution mojoExecution) {
+        return mojoExecution != null && PACKAGING_LIFECYCLE_PHASES.contains(mojoExecution.getLifecyclePhase());
+    }
+}
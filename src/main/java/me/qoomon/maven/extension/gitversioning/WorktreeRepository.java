@@ -0,0 +1,274 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.attributes.AttributesNodeProvider;
+import org.eclipse.jgit.events.IndexChangedEvent;
+import org.eclipse.jgit.lib.*;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository of a linked git worktree, see <code>git worktree add</code>.
+ * <p>
+ * Object database, refs and configuration are those of the repository of the common git directory,
+ * which may be shared by all linked worktrees, see {@link GitRepositoryCache}.
+ * Only HEAD and index are read from the worktree git directory.
+ * <p>
+ * Refs are read only, ref updates and renames are rejected.
+ */
+final class WorktreeRepository extends Repository {
+
+    private static final String COMMON_DIR_FILE_NAME = "commondir";
+    private static final String GIT_DIR_FILE_NAME = "gitdir";
+    private static final String SYMREF_PREFIX = "ref: ";
+
+    private final File worktreeGitDir;
+    private final Repository commonRepository;
+    private final WorktreeRefDatabase refDatabase;
+    private volatile long indexLastModified;
+
+    private WorktreeRepository(BaseRepositoryBuilder builder, File worktreeGitDir, Repository commonRepository) {
+        super(builder);
+        this.worktreeGitDir = worktreeGitDir;
+        this.commonRepository = commonRepository;
+        this.refDatabase = new WorktreeRefDatabase(commonRepository.getRefDatabase(), new File(worktreeGitDir, Constants.HEAD));
+        this.indexLastModified = builder.getIndexFile().lastModified();
+        commonRepository.incrementOpen();
+    }
+
+    /**
+     * @param gitDir git directory, see {@link FileRepositoryBuilder#getGitDir()}
+     * @return canonical common git directory or null if <code>gitDir</code> is no linked worktree git directory
+     * @throws IOException IOException
+     */
+    static File getCommonDir(File gitDir) throws IOException {
+        final File commonDirFile = new File(gitDir, COMMON_DIR_FILE_NAME);
+        if (!commonDirFile.isFile()) {
+            return null;
+        }
+        return resolve(gitDir, readFirstLine(commonDirFile)).getCanonicalFile();
+    }
+
+    /**
+     * @param gitDir           linked worktree git directory e.g. <code>.git/worktrees/&lt;name&gt;</code>
+     * @param commonRepository repository of common git directory, see {@link #getCommonDir(File)},
+     *                         stays open until this repository is closed
+     * @return worktree repository
+     * @throws IOException IOException
+     */
+    static Repository open(File gitDir, Repository commonRepository) throws IOException {
+        final FileRepositoryBuilder builder = new FileRepositoryBuilder()
+                .setGitDir(commonRepository.getDirectory())
+                .setIndexFile(new File(gitDir, "index"))
+                .setMustExist(true);
+        final File gitDirFile = new File(gitDir, GIT_DIR_FILE_NAME);
+        if (gitDirFile.isFile()) {
+            // contains path of the .git file within the worktree, relative paths are relative to gitDir
+            builder.setWorkTree(resolve(gitDir, readFirstLine(gitDirFile)).getParentFile());
+        } else {
+            builder.setBare();
+        }
+        return new WorktreeRepository(builder.setup(), gitDir.getCanonicalFile(), commonRepository);
+    }
+
+    /**
+     * @param repository the repository
+     * @return worktree git directory, containing HEAD and index, or git directory if <code>repository</code> is no worktree repository
+     */
+    static File getWorktreeGitDir(Repository repository) {
+        return repository instanceof WorktreeRepository
+                ? ((WorktreeRepository) repository).worktreeGitDir
+                : repository.getDirectory();
+    }
+
+    private static File resolve(File dir, String path) {
+        final File file = new File(path);
+        return file.isAbsolute() ? file : new File(dir, path);
+    }
+
+    private static String readFirstLine(File file) throws IOException {
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        if (lines.isEmpty() || lines.get(0).trim().isEmpty()) {
+            throw new IOException("invalid git worktree file " + file);
+        }
+        return lines.get(0).trim();
+    }
+
+    @Override
+    public void create(boolean bare) {
+        throw new IllegalStateException("git worktree repository already exists " + worktreeGitDir);
+    }
+
+    @Override
+    public ObjectDatabase getObjectDatabase() {
+        return commonRepository.getObjectDatabase();
+    }
+
+    @Override
+    public RefDatabase getRefDatabase() {
+        return refDatabase;
+    }
+
+    @Override
+    public StoredConfig getConfig() {
+        return commonRepository.getConfig();
+    }
+
+    @Override
+    public AttributesNodeProvider createAttributesNodeProvider() {
+        return commonRepository.createAttributesNodeProvider();
+    }
+
+    @Override
+    public void scanForRepoChanges() throws IOException {
+        refDatabase.getRefs();
+        if (getIndexFile().lastModified() != indexLastModified) {
+            notifyIndexChanged(false);
+        }
+    }
+
+    @Override
+    public void notifyIndexChanged(boolean internal) {
+        indexLastModified = getIndexFile().lastModified();
+        fireEvent(new IndexChangedEvent(internal));
+    }
+
+    @Override
+    public ReflogReader getReflogReader(String refName) throws IOException {
+        if (!Constants.HEAD.equals(refName)) {
+            return commonRepository.getReflogReader(refName);
+        }
+        // reflog of HEAD is located within worktree git directory
+        try (Repository worktreeGitDirRepository = new FileRepositoryBuilder().setGitDir(worktreeGitDir).setBare().build()) {
+            return worktreeGitDirRepository.getReflogReader(refName);
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        // object database and ref database belong to common repository
+        commonRepository.close();
+    }
+
+    /**
+     * Refs of common git directory, except HEAD of worktree git directory, read only.
+     */
+    private final class WorktreeRefDatabase extends RefDatabase {
+
+        private final RefDatabase delegate;
+        private final File headFile;
+
+        private WorktreeRefDatabase(RefDatabase delegate, File headFile) {
+            this.delegate = delegate;
+            this.headFile = headFile;
+        }
+
+        private Ref readHead() throws IOException {
+            if (!headFile.isFile()) {
+                return null;
+            }
+            final String head = readFirstLine(headFile);
+            if (head.startsWith(SYMREF_PREFIX)) {
+                final String target = head.substring(SYMREF_PREFIX.length()).trim();
+                Ref targetRef = delegate.exactRef(target);
+                if (targetRef == null) {
+                    targetRef = new ObjectIdRef.Unpeeled(Ref.Storage.NEW, target, null);
+                }
+                return new SymbolicRef(Constants.HEAD, targetRef);
+            }
+            if (!ObjectId.isId(head)) {
+                throw new IOException("invalid git worktree file " + headFile);
+            }
+            return new ObjectIdRef.Unpeeled(Ref.Storage.LOOSE, Constants.HEAD, ObjectId.fromString(head));
+        }
+
+        @Override
+        public Ref exactRef(String name) throws IOException {
+            return Constants.HEAD.equals(name) ? readHead() : delegate.exactRef(name);
+        }
+
+        @Override
+        public Ref getRef(String name) throws IOException {
+            return Constants.HEAD.equals(name) ? readHead() : delegate.getRef(name);
+        }
+
+        @Override
+        public List<Ref> getRefsByPrefix(String prefix) throws IOException {
+            final List<Ref> refs = delegate.getRefsByPrefix(prefix);
+            if (!Constants.HEAD.startsWith(prefix)) {
+                return refs;
+            }
+            final List<Ref> worktreeRefs = new ArrayList<>(refs);
+            worktreeRefs.removeIf(ref -> Constants.HEAD.equals(ref.getName()));
+            final Ref head = readHead();
+            if (head != null) {
+                worktreeRefs.add(head);
+            }
+            return worktreeRefs;
+        }
+
+        /**
+         * Abstract in JGit 5.1, refs are read by {@link #getRefsByPrefix(String)}.
+         */
+        @Override
+        @Deprecated
+        public Map<String, Ref> getRefs(String prefix) throws IOException {
+            final Map<String, Ref> refs = new HashMap<>();
+            for (Ref ref : getRefsByPrefix(prefix)) {
+                refs.put(ref.getName().substring(prefix.length()), ref);
+            }
+            return refs;
+        }
+
+        @Override
+        public List<Ref> getAdditionalRefs() throws IOException {
+            return delegate.getAdditionalRefs();
+        }
+
+        @Override
+        public Ref peel(Ref ref) throws IOException {
+            return delegate.peel(ref);
+        }
+
+        @Override
+        public boolean isNameConflicting(String name) throws IOException {
+            return delegate.isNameConflicting(name);
+        }
+
+        @Override
+        public void refresh() {
+            delegate.refresh();
+        }
+
+        @Override
+        public void create() {
+            throw readOnly();
+        }
+
+        @Override
+        public RefUpdate newUpdate(String name, boolean detach) {
+            throw readOnly();
+        }
+
+        @Override
+        public RefRename newRename(String fromName, String toName) {
+            throw readOnly();
+        }
+
+        @Override
+        public void close() {
+            // ref database of common repository is closed with common repository
+        }
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("git worktree repository is read only " + worktreeGitDir);
+    }
+}
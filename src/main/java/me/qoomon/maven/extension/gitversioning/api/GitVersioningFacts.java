@@ -0,0 +1,63 @@
+package me.qoomon.maven.extension.gitversioning.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Git state resolved by the git versioning extension within the current maven session.
+ * <p>
+ * Can be injected into other extensions and plugins by role <code>GitVersioningFacts</code>,
+ * so they do not need to open the git repository again. The component is session scoped,
+ * project versions are available as soon as maven has built the projects.
+ */
+public interface GitVersioningFacts {
+
+    /**
+     * @return true if git versioning is enabled within current session
+     */
+    boolean isEnabled();
+
+    /**
+     * @return commit of the multi module project directory, provided commit takes precedence
+     * @throws IOException IOException
+     * @throws IllegalStateException if git versioning is not enabled
+     */
+    String getCommit() throws IOException;
+
+    /**
+     * @return branch of the multi module project directory, provided branch takes precedence, null if HEAD is detached
+     * @throws IOException IOException
+     * @throws IllegalStateException if git versioning is not enabled
+     */
+    String getBranch() throws IOException;
+
+    /**
+     * @return tags pointing to commit of the multi module project directory, provided tag takes precedence
+     * @throws IOException IOException
+     * @throws IllegalStateException if git versioning is not enabled
+     */
+    List<String> getTags() throws IOException;
+
+    /**
+     * @param groupId    project group id
+     * @param artifactId project artifact id
+     * @param version    project version, as defined in pom file
+     * @return git based project version of the git repository of the multi module project directory
+     * or null if project was not processed within current session
+     * @throws IOException IOException
+     */
+    String getProjectVersion(String groupId, String artifactId, String version) throws IOException;
+
+    /**
+     * Versions are resolved per git repository, so the same GAV may have different versions in different git repositories.
+     *
+     * @param projectDirectory a directory within the git repository of the project
+     * @param groupId          project group id
+     * @param artifactId       project artifact id
+     * @param version          project version, as defined in pom file
+     * @return git based project version or null if project was not processed within current session
+     * @throws IOException IOException
+     */
+    String getProjectVersion(File projectDirectory, String groupId, String artifactId, String version) throws IOException;
+}
@@ -1,7 +1,9 @@
 package me.qoomon.maven.extension.gitversioning.config;
 
+import me.qoomon.maven.extension.gitversioning.StringUtil;
 import me.qoomon.maven.extension.gitversioning.config.model.VersionFormatDescription;
 
+import java.io.File;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,6 +12,7 @@ import java.util.Objects;
  */
 public class VersioningConfiguration {
 
+    private final File multiModuleProjectDirectory;
     private final boolean enabled;
     private final List<VersionFormatDescription> branchVersionDescriptions;
     private final List<VersionFormatDescription> tagVersionDescriptions;
@@ -17,18 +20,52 @@ public class VersioningConfiguration {
     private final String providedBranch;
     private final String providedTag;
     private final String providedCommit;
+    private final boolean versionLockEnabled;
+    private final boolean moduleStatusEnabled;
+    private final boolean statusSnapshotEnabled;
+    private final boolean branchInferenceEnabled;
+    private final String branchInferenceRemote;
+    private final File versionCacheDirectory;
+    private final int versionCacheSize;
+    private final int commitAbbreviationLength;
+    private final boolean outputTimestampEnabled;
+    private final boolean revisionEnabled;
+    private final boolean targetPomEnabled;
+    private final long timeBudget;
 
-    public VersioningConfiguration(boolean enabled, List<VersionFormatDescription> branchVersionDescriptions,
-                                   List<VersionFormatDescription> tagVersionDescriptions,
-                                   VersionFormatDescription commitVersionDescription,
-                                   String providedBranch, String providedTag, String providedCommit) {
-        this.enabled = enabled;
-        this.branchVersionDescriptions = Objects.requireNonNull(branchVersionDescriptions);
-        this.tagVersionDescriptions = Objects.requireNonNull(tagVersionDescriptions);
-        this.commitVersionDescription = Objects.requireNonNull(commitVersionDescription);
-        this.providedBranch = providedBranch;
-        this.providedTag = providedTag;
-        this.providedCommit = providedCommit;
+    private VersioningConfiguration(Builder builder) {
+        this.multiModuleProjectDirectory = Objects.requireNonNull(builder.multiModuleProjectDirectory);
+        this.enabled = builder.enabled;
+        this.branchVersionDescriptions = Objects.requireNonNull(builder.branchVersionDescriptions);
+        this.tagVersionDescriptions = Objects.requireNonNull(builder.tagVersionDescriptions);
+        this.commitVersionDescription = Objects.requireNonNull(builder.commitVersionDescription);
+        this.providedBranch = builder.providedBranch;
+        this.providedTag = builder.providedTag;
+        this.providedCommit = builder.providedCommit;
+        this.versionLockEnabled = builder.versionLockEnabled;
+        this.moduleStatusEnabled = builder.moduleStatusEnabled;
+        this.statusSnapshotEnabled = builder.statusSnapshotEnabled;
+        this.branchInferenceEnabled = builder.branchInferenceEnabled;
+        this.branchInferenceRemote = Objects.requireNonNull(builder.branchInferenceRemote);
+        this.versionCacheDirectory = builder.versionCacheDirectory;
+        this.versionCacheSize = builder.versionCacheSize;
+        this.commitAbbreviationLength = builder.commitAbbreviationLength;
+        this.outputTimestampEnabled = builder.outputTimestampEnabled;
+        this.revisionEnabled = builder.revisionEnabled;
+        this.targetPomEnabled = builder.targetPomEnabled;
+        this.timeBudget = builder.timeBudget;
+    }
+
+    /**
+     * @param multiModuleProjectDirectory the directory containing the <code>.mvn</code> directory
+     * @return builder of a configuration with all options disabled
+     */
+    public static Builder builder(File multiModuleProjectDirectory) {
+        return new Builder(multiModuleProjectDirectory);
+    }
+
+    public File getMultiModuleProjectDirectory() {
+        return multiModuleProjectDirectory;
     }
 
     public List<VersionFormatDescription> getBranchVersionDescriptions() {
@@ -58,4 +95,206 @@ public class VersioningConfiguration {
     public String getProvidedCommit() {
         return providedCommit;
     }
+
+    public boolean isVersionLockEnabled() {
+        return versionLockEnabled;
+    }
+
+    public boolean isModuleStatusEnabled() {
+        return moduleStatusEnabled;
+    }
+
+    /**
+     * @return true if directory modification times of a clean working tree should be stored within git directory
+     */
+    public boolean isStatusSnapshotEnabled() {
+        return statusSnapshotEnabled;
+    }
+
+    public boolean isBranchInferenceEnabled() {
+        return branchInferenceEnabled;
+    }
+
+    /**
+     * @return remote name whose branches are considered by branch inference, besides local branches
+     */
+    public String getBranchInferenceRemote() {
+        return branchInferenceRemote;
+    }
+
+    /**
+     * @return shared version cache directory or null if version cache is disabled
+     */
+    public File getVersionCacheDirectory() {
+        return versionCacheDirectory;
+    }
+
+    /**
+     * @return max number of entries of version cache directory
+     */
+    public int getVersionCacheSize() {
+        return versionCacheSize;
+    }
+
+    /**
+     * @return min length of <code>${commit.abbrev}</code>
+     */
+    public int getCommitAbbreviationLength() {
+        return commitAbbreviationLength;
+    }
+
+    /**
+     * @return true if <code>project.build.outputTimestamp</code> should be set to commit time
+     */
+    public boolean isOutputTimestampEnabled() {
+        return outputTimestampEnabled;
+    }
+
+    /**
+     * @return true if only CI friendly properties <code>revision</code>, <code>sha1</code> and <code>changelist</code> should be set
+     */
+    public boolean isRevisionEnabled() {
+        return revisionEnabled;
+    }
+
+    /**
+     * @return true if git versioned pom files should be written to build directory instead of project directory
+     */
+    public boolean isTargetPomEnabled() {
+        return targetPomEnabled;
+    }
+
+    /**
+     * @return time budget in milliseconds for reading tags and working tree status of a git repository, 0 for unlimited
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return a hash of all version format descriptions, changes whenever the same git state would lead to different versions
+     */
+    public String getHash() {
+        StringBuilder hashInput = new StringBuilder();
+        for (VersionFormatDescription description : branchVersionDescriptions) {
+            append(hashInput, "branch", description);
+        }
+        for (VersionFormatDescription description : tagVersionDescriptions) {
+            append(hashInput, "tag", description);
+        }
+        append(hashInput, "commit", commitVersionDescription);
+        hashInput.append(commitAbbreviationLength);
+        return StringUtil.sha1(hashInput.toString());
+    }
+
+    private static void append(StringBuilder hashInput, String type, VersionFormatDescription description) {
+        for (String value : new String[]{type, description.pattern, description.prefix, description.versionFormat}) {
+            hashInput.append(value).append('\0');
+        }
+    }
+
+    public static final class Builder {
+
+        private final File multiModuleProjectDirectory;
+        private boolean enabled;
+        private List<VersionFormatDescription> branchVersionDescriptions;
+        private List<VersionFormatDescription> tagVersionDescriptions;
+        private VersionFormatDescription commitVersionDescription;
+        private String providedBranch;
+        private String providedTag;
+        private String providedCommit;
+        private boolean versionLockEnabled;
+        private boolean moduleStatusEnabled;
+        private boolean statusSnapshotEnabled;
+        private boolean branchInferenceEnabled;
+        private String branchInferenceRemote;
+        private File versionCacheDirectory;
+        private int versionCacheSize;
+        private int commitAbbreviationLength;
+        private boolean outputTimestampEnabled;
+        private boolean revisionEnabled;
+        private boolean targetPomEnabled;
+        private long timeBudget;
+
+        private Builder(File multiModuleProjectDirectory) {
+            this.multiModuleProjectDirectory = multiModuleProjectDirectory;
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder versionDescriptions(List<VersionFormatDescription> branchVersionDescriptions,
+                                           List<VersionFormatDescription> tagVersionDescriptions,
+                                           VersionFormatDescription commitVersionDescription) {
+            this.branchVersionDescriptions = branchVersionDescriptions;
+            this.tagVersionDescriptions = tagVersionDescriptions;
+            this.commitVersionDescription = commitVersionDescription;
+            return this;
+        }
+
+        public Builder provided(String providedBranch, String providedTag, String providedCommit) {
+            this.providedBranch = providedBranch;
+            this.providedTag = providedTag;
+            this.providedCommit = providedCommit;
+            return this;
+        }
+
+        public Builder versionLockEnabled(boolean versionLockEnabled) {
+            this.versionLockEnabled = versionLockEnabled;
+            return this;
+        }
+
+        public Builder moduleStatusEnabled(boolean moduleStatusEnabled) {
+            this.moduleStatusEnabled = moduleStatusEnabled;
+            return this;
+        }
+
+        public Builder statusSnapshotEnabled(boolean statusSnapshotEnabled) {
+            this.statusSnapshotEnabled = statusSnapshotEnabled;
+            return this;
+        }
+
+        public Builder branchInference(boolean branchInferenceEnabled, String branchInferenceRemote) {
+            this.branchInferenceEnabled = branchInferenceEnabled;
+            this.branchInferenceRemote = branchInferenceRemote;
+            return this;
+        }
+
+        public Builder versionCache(File versionCacheDirectory, int versionCacheSize) {
+            this.versionCacheDirectory = versionCacheDirectory;
+            this.versionCacheSize = versionCacheSize;
+            return this;
+        }
+
+        public Builder commitAbbreviationLength(int commitAbbreviationLength) {
+            this.commitAbbreviationLength = commitAbbreviationLength;
+            return this;
+        }
+
+        public Builder outputTimestampEnabled(boolean outputTimestampEnabled) {
+            this.outputTimestampEnabled = outputTimestampEnabled;
+            return this;
+        }
+
+        public Builder revisionEnabled(boolean revisionEnabled) {
+            this.revisionEnabled = revisionEnabled;
+            return this;
+        }
+
+        public Builder targetPomEnabled(boolean targetPomEnabled) {
+            this.targetPomEnabled = targetPomEnabled;
+            return this;
+        }
+
+        public Builder timeBudget(long timeBudget) {
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        public VersioningConfiguration build() {
+            return new VersioningConfiguration(this);
+        }
+    }
 }
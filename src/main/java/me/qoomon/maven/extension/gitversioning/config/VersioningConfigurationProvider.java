@@ -1,22 +1,25 @@
 package me.qoomon.maven.extension.gitversioning.config;
 
-import com.google.common.collect.Lists;
 import com.google.inject.Key;
 import me.qoomon.maven.extension.gitversioning.BuildProperties;
 import me.qoomon.maven.extension.gitversioning.config.model.Configuration;
 import me.qoomon.maven.extension.gitversioning.config.model.VersionFormatDescription;
-import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.session.scope.internal.SessionScope;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.Logger;
+import org.eclipse.jgit.lib.Constants;
 import org.simpleframework.xml.Serializer;
 import org.simpleframework.xml.core.Persister;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Properties;
+
+import static java.util.Collections.singletonList;
 
 /**
  * Created by qoomon on 30/11/2016.
@@ -38,6 +41,44 @@ public class VersioningConfigurationProvider {
     private static final String PROJECT_COMMIT_PROPERTY_KEY = "project.commit";
     private static final String PROJECT_COMMIT_ENVIRONMENT_VARIABLE_NAME = "MAVEN_PROJECT_COMMIT";
 
+    private static final String VERSION_LOCK_PROPERTY_KEY = "gitVersioning.lockFile";
+    private static final String VERSION_LOCK_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_LOCK_FILE";
+
+    private static final String MODULE_STATUS_PROPERTY_KEY = "gitVersioning.moduleStatus";
+    private static final String MODULE_STATUS_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_MODULE_STATUS";
+
+    private static final String STATUS_SNAPSHOT_PROPERTY_KEY = "gitVersioning.statusSnapshot";
+    private static final String STATUS_SNAPSHOT_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_STATUS_SNAPSHOT";
+
+    private static final String BRANCH_INFERENCE_PROPERTY_KEY = "gitVersioning.inferBranch";
+    private static final String BRANCH_INFERENCE_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_INFER_BRANCH";
+
+    private static final String BRANCH_INFERENCE_REMOTE_PROPERTY_KEY = "gitVersioning.inferBranchRemote";
+    private static final String BRANCH_INFERENCE_REMOTE_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_INFER_BRANCH_REMOTE";
+
+    private static final String VERSION_CACHE_DIRECTORY_PROPERTY_KEY = "gitVersioning.cacheDirectory";
+    private static final String VERSION_CACHE_DIRECTORY_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_CACHE_DIRECTORY";
+
+    private static final String VERSION_CACHE_SIZE_PROPERTY_KEY = "gitVersioning.cacheSize";
+    private static final String VERSION_CACHE_SIZE_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_CACHE_SIZE";
+    private static final int DEFAULT_VERSION_CACHE_SIZE = 10000;
+
+    private static final String COMMIT_ABBREVIATION_LENGTH_PROPERTY_KEY = "gitVersioning.commitAbbrevLength";
+    private static final String COMMIT_ABBREVIATION_LENGTH_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_COMMIT_ABBREV_LENGTH";
+    private static final int DEFAULT_COMMIT_ABBREVIATION_LENGTH = 7;
+
+    private static final String OUTPUT_TIMESTAMP_PROPERTY_KEY = "gitVersioning.outputTimestamp";
+    private static final String OUTPUT_TIMESTAMP_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_OUTPUT_TIMESTAMP";
+
+    private static final String REVISION_PROPERTY_KEY = "gitVersioning.revision";
+    private static final String REVISION_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_REVISION";
+
+    private static final String TARGET_POM_PROPERTY_KEY = "gitVersioning.targetPom";
+    private static final String TARGET_POM_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_TARGET_POM";
+
+    private static final String TIME_BUDGET_PROPERTY_KEY = "gitVersioning.timeBudget";
+    private static final String TIME_BUDGET_ENVIRONMENT_VARIABLE_NAME = "MAVEN_GIT_VERSIONING_TIME_BUDGET";
+
     private SessionScope sessionScope;
 
     @Inject
@@ -48,14 +89,25 @@ public class VersioningConfigurationProvider {
 
     public VersioningConfiguration get() {
         final MavenSession session = sessionScope.scope(Key.get(MavenSession.class), null).get();
+        return get(session.getRequest().getMultiModuleProjectDirectory(), session.getUserProperties());
+    }
 
-        List<VersionFormatDescription> branchVersionDescriptions = Lists.newArrayList(defaultBranchVersionFormat());
+    /**
+     * Builds configuration without a maven session
+     *
+     * @param multiModuleProjectDirectory the directory containing the <code>.mvn</code> directory
+     * @param userProperties              user properties e.g. from command line
+     * @return configuration
+     */
+    public VersioningConfiguration get(File multiModuleProjectDirectory, Properties userProperties) {
+        List<VersionFormatDescription> branchVersionDescriptions = new ArrayList<>(singletonList(defaultBranchVersionFormat()));
         List<VersionFormatDescription> tagVersionDescriptions = new LinkedList<>();
         VersionFormatDescription commitVersionDescription = defaultCommitVersionFormat();
 
-        File configFile = getConfigFile(session.getRequest());
+        Configuration configurationModel = new Configuration();
+        File configFile = getConfigFile(multiModuleProjectDirectory);
         if (configFile.exists()) {
-            Configuration configurationModel = loadConfiguration(configFile);
+            configurationModel = loadConfiguration(configFile);
             branchVersionDescriptions.addAll(0, configurationModel.branches);
             tagVersionDescriptions.addAll(0, configurationModel.tags);
             if (configurationModel.commitVersionFormat != null) {
@@ -65,21 +117,11 @@ public class VersioningConfigurationProvider {
             logger.info("No configuration file found. Apply default configuration.");
         }
 
-        String extensionToggle = session.getUserProperties().getProperty(GIT_VERSIONING_PROPERTY_KEY);
-        if (extensionToggle == null) {
-            extensionToggle = System.getenv(GIT_VERSIONING_ENVIRONMENT_VARIABLE_NAME);
-        }
+        String extensionToggle = option(userProperties, GIT_VERSIONING_PROPERTY_KEY, GIT_VERSIONING_ENVIRONMENT_VARIABLE_NAME, null);
         boolean enabledExtension = extensionToggle == null || extensionToggle.equals("true");
 
-        String providedBranch = session.getUserProperties().getProperty(PROJECT_BRANCH_PROPERTY_KEY);
-        if (providedBranch == null) {
-            providedBranch = System.getenv(PROJECT_BRANCH_ENVIRONMENT_VARIABLE_NAME);
-        }
-
-        String providedTag = session.getUserProperties().getProperty(PROJECT_TAG_PROPERTY_KEY);
-        if (providedTag == null) {
-            providedTag = System.getenv(PROJECT_TAG_ENVIRONMENT_VARIABLE_NAME);
-        }
+        String providedBranch = option(userProperties, PROJECT_BRANCH_PROPERTY_KEY, PROJECT_BRANCH_ENVIRONMENT_VARIABLE_NAME, null);
+        String providedTag = option(userProperties, PROJECT_TAG_PROPERTY_KEY, PROJECT_TAG_ENVIRONMENT_VARIABLE_NAME, null);
 
         // override branch if only tag is provided
         if (providedBranch == null && providedTag != null) {
@@ -93,15 +135,108 @@ public class VersioningConfigurationProvider {
             providedTag = null;
         }
 
-        String providedCommit = session.getUserProperties().getProperty(PROJECT_COMMIT_PROPERTY_KEY);
-        if (providedCommit == null) {
-            providedCommit = System.getenv(PROJECT_COMMIT_ENVIRONMENT_VARIABLE_NAME);
-        }
-        if(providedCommit != null && providedCommit.isEmpty()){
+        String providedCommit = option(userProperties, PROJECT_COMMIT_PROPERTY_KEY, PROJECT_COMMIT_ENVIRONMENT_VARIABLE_NAME, null);
+        if (providedCommit != null && providedCommit.isEmpty()) {
             providedCommit = null;
         }
 
-        return new VersioningConfiguration(enabledExtension, branchVersionDescriptions, tagVersionDescriptions, commitVersionDescription, providedBranch, providedTag, providedCommit);
+        String branchInferenceRemote = option(userProperties, BRANCH_INFERENCE_REMOTE_PROPERTY_KEY, BRANCH_INFERENCE_REMOTE_ENVIRONMENT_VARIABLE_NAME,
+                configurationModel.inferBranchRemote);
+        if (branchInferenceRemote == null || branchInferenceRemote.isEmpty()) {
+            branchInferenceRemote = Constants.DEFAULT_REMOTE_NAME;
+        }
+
+        String versionCacheDirectoryPath = option(userProperties, VERSION_CACHE_DIRECTORY_PROPERTY_KEY, VERSION_CACHE_DIRECTORY_ENVIRONMENT_VARIABLE_NAME,
+                configurationModel.cacheDirectory);
+        File versionCacheDirectory = null;
+        if (versionCacheDirectoryPath != null && !versionCacheDirectoryPath.isEmpty()) {
+            versionCacheDirectory = new File(versionCacheDirectoryPath);
+            if (!versionCacheDirectory.isAbsolute()) {
+                versionCacheDirectory = new File(multiModuleProjectDirectory, versionCacheDirectoryPath);
+            }
+        }
+
+        int versionCacheSize = intOption(userProperties, VERSION_CACHE_SIZE_PROPERTY_KEY, VERSION_CACHE_SIZE_ENVIRONMENT_VARIABLE_NAME,
+                configurationModel.cacheSize, DEFAULT_VERSION_CACHE_SIZE);
+
+        int commitAbbreviationLength = intOption(userProperties, COMMIT_ABBREVIATION_LENGTH_PROPERTY_KEY, COMMIT_ABBREVIATION_LENGTH_ENVIRONMENT_VARIABLE_NAME,
+                configurationModel.commitAbbrevLength, DEFAULT_COMMIT_ABBREVIATION_LENGTH);
+        if (commitAbbreviationLength < 4 || commitAbbreviationLength > 40) {
+            throw new IllegalArgumentException("invalid " + COMMIT_ABBREVIATION_LENGTH_PROPERTY_KEY + " '" + commitAbbreviationLength + "'"
+                    + " - has to be between 4 and 40");
+        }
+
+        long timeBudget = numberOption(userProperties, TIME_BUDGET_PROPERTY_KEY, TIME_BUDGET_ENVIRONMENT_VARIABLE_NAME,
+                configurationModel.timeBudget, 0);
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("invalid " + TIME_BUDGET_PROPERTY_KEY + " '" + timeBudget + "'"
+                    + " - has to be a positive number of milliseconds or 0 for unlimited");
+        }
+
+        return VersioningConfiguration.builder(multiModuleProjectDirectory)
+                .enabled(enabledExtension)
+                .versionDescriptions(branchVersionDescriptions, tagVersionDescriptions, commitVersionDescription)
+                .provided(providedBranch, providedTag, providedCommit)
+                .versionLockEnabled(booleanOption(userProperties, VERSION_LOCK_PROPERTY_KEY, VERSION_LOCK_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.lockFile))
+                .moduleStatusEnabled(booleanOption(userProperties, MODULE_STATUS_PROPERTY_KEY, MODULE_STATUS_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.moduleStatus))
+                .statusSnapshotEnabled(booleanOption(userProperties, STATUS_SNAPSHOT_PROPERTY_KEY, STATUS_SNAPSHOT_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.statusSnapshot))
+                .branchInference(booleanOption(userProperties, BRANCH_INFERENCE_PROPERTY_KEY, BRANCH_INFERENCE_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.inferBranch), branchInferenceRemote)
+                .versionCache(versionCacheDirectory, versionCacheSize)
+                .commitAbbreviationLength(commitAbbreviationLength)
+                .outputTimestampEnabled(booleanOption(userProperties, OUTPUT_TIMESTAMP_PROPERTY_KEY, OUTPUT_TIMESTAMP_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.outputTimestamp))
+                .revisionEnabled(booleanOption(userProperties, REVISION_PROPERTY_KEY, REVISION_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.revision))
+                .targetPomEnabled(booleanOption(userProperties, TARGET_POM_PROPERTY_KEY, TARGET_POM_ENVIRONMENT_VARIABLE_NAME,
+                        configurationModel.targetPom))
+                .timeBudget(timeBudget)
+                .build();
+    }
+
+    /**
+     * @param userProperties          user properties e.g. from command line
+     * @param propertyKey             user property key
+     * @param environmentVariableName environment variable name
+     * @param defaultValue            value if neither user property nor environment variable is set, e.g. from config file
+     * @return user property value, else environment variable value, else <code>defaultValue</code> as string
+     */
+    private static String option(Properties userProperties, String propertyKey, String environmentVariableName, Object defaultValue) {
+        String value = userProperties.getProperty(propertyKey);
+        if (value == null) {
+            value = System.getenv(environmentVariableName);
+        }
+        if (value == null && defaultValue != null) {
+            value = defaultValue.toString();
+        }
+        return value;
+    }
+
+    private static boolean booleanOption(Properties userProperties, String propertyKey, String environmentVariableName, Boolean defaultValue) {
+        return "true".equals(option(userProperties, propertyKey, environmentVariableName, defaultValue));
+    }
+
+    private static int intOption(Properties userProperties, String propertyKey, String environmentVariableName, Integer defaultValue, int fallbackValue) {
+        long value = numberOption(userProperties, propertyKey, environmentVariableName, defaultValue, fallbackValue);
+        if (value != (int) value) {
+            throw new IllegalArgumentException("invalid " + propertyKey + " '" + value + "'");
+        }
+        return (int) value;
+    }
+
+    private static long numberOption(Properties userProperties, String propertyKey, String environmentVariableName, Number defaultValue, long fallbackValue) {
+        String value = option(userProperties, propertyKey, environmentVariableName, defaultValue);
+        if (value == null || value.isEmpty()) {
+            return fallbackValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + propertyKey + " '" + value + "'", e);
+        }
     }
 
     private static VersionFormatDescription defaultBranchVersionFormat() {
@@ -122,8 +257,8 @@ public class VersioningConfigurationProvider {
         }
     }
 
-    private static File getConfigFile(MavenExecutionRequest request) {
-        return new File(request.getMultiModuleProjectDirectory(), ".mvn/" + BuildProperties.projectArtifactId() + ".xml");
+    private static File getConfigFile(File multiModuleProjectDirectory) {
+        return new File(multiModuleProjectDirectory, ".mvn/" + BuildProperties.projectArtifactId() + ".xml");
     }
 
 }
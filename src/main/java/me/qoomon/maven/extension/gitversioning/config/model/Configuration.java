@@ -24,4 +24,42 @@ public class Configuration {
     @Element(name = "versionFormat")
     public String commitVersionFormat;
 
+    // options, overridden by maven parameters and environment variables
+
+    @Element(required = false)
+    public Boolean lockFile;
+
+    @Element(required = false)
+    public Boolean moduleStatus;
+
+    @Element(required = false)
+    public Boolean statusSnapshot;
+
+    @Element(required = false)
+    public Boolean inferBranch;
+
+    @Element(required = false)
+    public String inferBranchRemote;
+
+    @Element(required = false)
+    public String cacheDirectory;
+
+    @Element(required = false)
+    public Integer cacheSize;
+
+    @Element(required = false)
+    public Integer commitAbbrevLength;
+
+    @Element(required = false)
+    public Boolean outputTimestamp;
+
+    @Element(required = false)
+    public Boolean revision;
+
+    @Element(required = false)
+    public Boolean targetPom;
+
+    @Element(required = false)
+    public Long timeBudget;
+
 }
@@ -0,0 +1,104 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitAbbreviationCacheTest {
+
+    private File repositoryDirectory;
+
+    @BeforeEach
+    void createRepositoryDirectory() throws IOException {
+        repositoryDirectory = Files.createTempDirectory("git-versioning-repo").toFile();
+    }
+
+    @AfterEach
+    void deleteRepositoryDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(repositoryDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void get_unambiguous() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            Repository repository = git.getRepository();
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true).call().getName();
+
+            // When
+            String abbreviation = CommitAbbreviationCache.get(repository, givenCommit, 7);
+
+            // Then
+            assertThat(abbreviation).isEqualTo(givenCommit.substring(0, 7));
+        }
+    }
+
+    @Test
+    void get_ambiguousMinLength() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            Repository repository = git.getRepository();
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true).call().getName();
+            String givenBlob = insertBlobWithPrefix(repository, givenCommit.substring(0, 4));
+            int commonPrefixLength = 4;
+            while (givenBlob.charAt(commonPrefixLength) == givenCommit.charAt(commonPrefixLength)) {
+                commonPrefixLength++;
+            }
+
+            // When
+            String abbreviation = CommitAbbreviationCache.get(repository, givenCommit, 4);
+
+            // Then
+            assertThat(abbreviation).isEqualTo(givenCommit.substring(0, commonPrefixLength + 1));
+        }
+    }
+
+    @Test
+    void get_keptForCommit() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            Repository repository = git.getRepository();
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true).call().getName();
+            String givenAbbreviation = CommitAbbreviationCache.get(repository, givenCommit, 4);
+            insertBlobWithPrefix(repository, givenCommit.substring(0, 4));
+
+            // When
+            String abbreviation = CommitAbbreviationCache.get(repository, givenCommit, 4);
+
+            // Then
+            assertThat(abbreviation).isEqualTo(givenAbbreviation);
+            assertThat(new File(repository.getDirectory(), CleanCheckSnapshot.DIRECTORY_PATH + "/" + CommitAbbreviationCache.FILE_NAME)).isFile();
+        }
+    }
+
+    private static String insertBlobWithPrefix(Repository repository, String prefix) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            for (int i = 0; ; i++) {
+                byte[] content = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+                ObjectId blobId = inserter.idFor(Constants.OBJ_BLOB, content);
+                if (blobId.getName().startsWith(prefix)) {
+                    inserter.insert(Constants.OBJ_BLOB, content);
+                    inserter.flush();
+                    return blobId.getName();
+                }
+            }
+        }
+    }
+}
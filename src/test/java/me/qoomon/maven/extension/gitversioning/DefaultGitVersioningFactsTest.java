@@ -0,0 +1,99 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfigurationProvider;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelProcessor;
+import org.apache.maven.model.io.DefaultModelReader;
+import org.apache.maven.session.scope.internal.SessionScope;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DefaultGitVersioningFactsTest {
+
+    private final Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+
+    private File repositoryDirectory;
+    private SessionScope sessionScope;
+
+    @BeforeEach
+    void createRepositoryDirectory() throws IOException {
+        repositoryDirectory = Files.createTempDirectory("git-versioning-repo").toFile();
+        sessionScope = new SessionScope();
+        sessionScope.enter();
+    }
+
+    @AfterEach
+    void deleteRepositoryDirectory() throws IOException {
+        sessionScope.exit();
+        try (Stream<Path> paths = Files.walk(repositoryDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void getCommit_notEnabled() throws IOException {
+        // Given
+        DefaultGitVersioningFacts givenFacts = new DefaultGitVersioningFacts((ModelProcessor) null);
+
+        // When
+        // Then
+        assertThat(givenFacts.isEnabled()).isFalse();
+        assertThatThrownBy(givenFacts::getCommit).isInstanceOf(IllegalStateException.class);
+        assertThat(givenFacts.getProjectVersion("group", "artifact", "1.0.0-SNAPSHOT")).isNull();
+    }
+
+    @Test
+    void getCommit_enabled() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            File givenPomFile = new File(repositoryDirectory, "pom.xml");
+            Files.write(givenPomFile.toPath(), ("<project>"
+                    + "<modelVersion>4.0.0</modelVersion>"
+                    + "<groupId>group</groupId><artifactId>artifact</artifactId><version>1.0.0-SNAPSHOT</version>"
+                    + "</project>").getBytes(StandardCharsets.UTF_8));
+            git.add().addFilepattern("pom.xml").call();
+            String givenCommit = git.commit().setMessage("init").call().getName();
+            git.tag().setName("v1.0.0").call();
+
+            MavenExecutionRequest givenRequest = new DefaultMavenExecutionRequest();
+            givenRequest.setMultiModuleProjectDirectory(repositoryDirectory);
+            sessionScope.seed(MavenSession.class, new MavenSession(null, null, givenRequest, new DefaultMavenExecutionResult()));
+            VersioningModelProcessor givenModelProcessor = new VersioningModelProcessor(logger, sessionScope,
+                    new VersioningConfigurationProvider(logger, sessionScope));
+            givenModelProcessor.setModelReader(new DefaultModelReader());
+            DefaultGitVersioningFacts givenFacts = new DefaultGitVersioningFacts(givenModelProcessor);
+
+            // When
+            givenModelProcessor.read(givenPomFile, singletonMap(ModelProcessor.SOURCE, new FileModelSource(givenPomFile)));
+
+            // Then
+            assertThat(givenFacts.isEnabled()).isTrue();
+            assertThat(givenFacts.getCommit()).isEqualTo(givenCommit);
+            assertThat(givenFacts.getBranch()).isEqualTo("master");
+            assertThat(givenFacts.getTags()).containsExactly("v1.0.0");
+            assertThat(givenFacts.getProjectVersion("group", "artifact", "1.0.0-SNAPSHOT")).isEqualTo("master-SNAPSHOT");
+            assertThat(givenFacts.getProjectVersion(repositoryDirectory, "group", "artifact", "1.0.0-SNAPSHOT")).isEqualTo("master-SNAPSHOT");
+            assertThat(givenFacts.getProjectVersion("group", "artifact", "2.0.0-SNAPSHOT")).isNull();
+        }
+    }
+}
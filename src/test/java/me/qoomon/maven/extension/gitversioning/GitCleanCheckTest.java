@@ -0,0 +1,71 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitCleanCheckTest {
+
+    private File repositoryDirectory;
+
+    @BeforeEach
+    void createRepositoryDirectory() throws IOException {
+        repositoryDirectory = Files.createTempDirectory("git-versioning-clean-check").toFile();
+    }
+
+    @AfterEach
+    void deleteRepositoryDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(repositoryDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void isClean_snapshotDisabled() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            commitFile(git, "file.txt");
+
+            // When
+            boolean clean = GitCleanCheck.isClean(git.getRepository(), "", false);
+
+            // Then
+            assertThat(clean).isTrue();
+            assertThat(new File(git.getRepository().getDirectory(), CleanCheckSnapshot.DIRECTORY_PATH)).doesNotExist();
+        }
+    }
+
+    @Test
+    void isClean_snapshotEnabled() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            commitFile(git, "file.txt");
+            GitCleanCheck.isClean(git.getRepository(), "", true);
+            Files.write(new File(repositoryDirectory, "untracked.txt").toPath(), "untracked".getBytes(StandardCharsets.UTF_8));
+
+            // When
+            boolean clean = GitCleanCheck.isClean(git.getRepository(), "", true);
+
+            // Then
+            assertThat(clean).isFalse();
+            assertThat(new File(git.getRepository().getDirectory(), CleanCheckSnapshot.DIRECTORY_PATH)).isDirectory();
+        }
+    }
+
+    private void commitFile(Git git, String fileName) throws Exception {
+        Files.write(new File(repositoryDirectory, fileName).toPath(), fileName.getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern(fileName).call();
+        git.commit().setMessage(fileName).call();
+    }
+}
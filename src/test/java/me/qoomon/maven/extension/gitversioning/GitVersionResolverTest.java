@@ -0,0 +1,155 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfiguration;
+import me.qoomon.maven.extension.gitversioning.config.VersioningConfigurationProvider;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Properties;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitVersionResolverTest {
+
+    private File repositoryDirectory;
+
+    @BeforeEach
+    void createRepositoryDirectory() throws IOException {
+        repositoryDirectory = Files.createTempDirectory("git-versioning-repo").toFile();
+    }
+
+    @AfterEach
+    void deleteRepositoryDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(repositoryDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void getCommitTime() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            PersonIdent givenCommitter = new PersonIdent("test", "test@example.org",
+                    new Date(1548949621000L), TimeZone.getTimeZone("Europe/Berlin"));
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true)
+                    .setAuthor(givenCommitter).setCommitter(givenCommitter).call().getName();
+
+            Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+            VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                    .get(repositoryDirectory, new Properties());
+            GitVersionResolver resolver = new GitVersionResolver(logger, configuration);
+
+            // When
+            Long commitTime = resolver.getCommitTime(repositoryDirectory, givenCommit);
+
+            // Then
+            assertThat(commitTime).isEqualTo(1548949621L);
+            assertThat(GitVersionResolver.formatCommitInstant(commitTime)).isEqualTo("2019-01-31T15:47:01Z");
+            assertThat(resolver.getGitRepoData(repositoryDirectory).getCommitTime()).isEqualTo(1548949621L);
+            assertThat(resolver.getCommitTime(repositoryDirectory, "0000000000000000000000000000000000000000")).isNull();
+        }
+    }
+
+    @Test
+    void resolve_sharedRefContext() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            git.commit().setMessage("init").setAllowEmpty(true).call();
+            git.checkout().setCreateBranch(true).setName("feature/my-feature").call();
+            File configFile = new File(repositoryDirectory, ".mvn/maven-git-versioning-extension.xml");
+            assertThat(configFile.getParentFile().mkdirs()).isTrue();
+            Files.write(configFile.toPath(), ("<configuration><branches><branch>"
+                    + "<pattern>feature/(?&lt;feature&gt;.*)</pattern>"
+                    + "<versionFormat>${feature}-${version.release}-SNAPSHOT</versionFormat>"
+                    + "</branch></branches><tags /></configuration>").getBytes(StandardCharsets.UTF_8));
+
+            Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+            VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                    .get(repositoryDirectory, new Properties());
+            GitVersionResolver resolver = new GitVersionResolver(logger, configuration);
+
+            // When
+            GAVGit moduleVersion = resolver.resolve(new GAV("group", "module", "1.0.0-SNAPSHOT"), repositoryDirectory);
+            GAVGit otherModuleVersion = resolver.resolve(new GAV("group", "other-module", "2.0.0-SNAPSHOT"), repositoryDirectory);
+
+            // Then
+            assertThat(moduleVersion.getVersion()).isEqualTo("my-feature-1.0.0-SNAPSHOT");
+            assertThat(moduleVersion.getCommitRefType()).isEqualTo("branch");
+            assertThat(moduleVersion.getCommitRefName()).isEqualTo("feature/my-feature");
+            assertThat(otherModuleVersion.getVersion()).isEqualTo("my-feature-2.0.0-SNAPSHOT");
+        }
+    }
+
+    @Test
+    void resolve_shortProvidedCommit() throws Exception {
+        try (Git ignored = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            File configFile = new File(repositoryDirectory, ".mvn/maven-git-versioning-extension.xml");
+            assertThat(configFile.getParentFile().mkdirs()).isTrue();
+            Files.write(configFile.toPath(), ("<configuration><branches /><tags />"
+                    + "<commit><versionFormat>${commit.short}-${module.commit.short}</versionFormat></commit>"
+                    + "</configuration>").getBytes(StandardCharsets.UTF_8));
+            Properties givenProperties = new Properties();
+            givenProperties.setProperty("project.branch", "");
+            givenProperties.setProperty("project.tag", "");
+            givenProperties.setProperty("project.commit", "abc");
+
+            Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+            VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                    .get(repositoryDirectory, givenProperties);
+            GitVersionResolver resolver = new GitVersionResolver(logger, configuration);
+
+            // When
+            GAVGit version = resolver.resolve(new GAV("group", "module", "1.0.0-SNAPSHOT"), repositoryDirectory);
+
+            // Then
+            assertThat(version.getVersion()).isEqualTo("abc-abc");
+        }
+    }
+
+    @Test
+    void resolve_moduleCommitOfProvidedCommit() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call()) {
+            // Given
+            File configFile = new File(repositoryDirectory, ".mvn/maven-git-versioning-extension.xml");
+            assertThat(configFile.getParentFile().mkdirs()).isTrue();
+            Files.write(configFile.toPath(), ("<configuration><branches /><tags />"
+                    + "<commit><versionFormat>${module.commit}</versionFormat></commit>"
+                    + "</configuration>").getBytes(StandardCharsets.UTF_8));
+            git.add().addFilepattern(".").call();
+            String givenCommit = git.commit().setMessage("init").call().getName();
+            Files.write(new File(repositoryDirectory, "file.txt").toPath(), "change".getBytes(StandardCharsets.UTF_8));
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("change").call();
+            Properties givenProperties = new Properties();
+            givenProperties.setProperty("project.branch", "");
+            givenProperties.setProperty("project.tag", "");
+            givenProperties.setProperty("project.commit", givenCommit);
+
+            Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+            VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                    .get(repositoryDirectory, givenProperties);
+            GitVersionResolver resolver = new GitVersionResolver(logger, configuration);
+
+            // When
+            GAVGit version = resolver.resolve(new GAV("group", "module", "1.0.0-SNAPSHOT"), repositoryDirectory);
+
+            // Then
+            assertThat(version.getVersion()).isEqualTo(givenCommit);
+        }
+    }
+}
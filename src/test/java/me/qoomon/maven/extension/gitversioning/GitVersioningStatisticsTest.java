@@ -0,0 +1,52 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class GitVersioningStatisticsTest {
+
+    @Test
+    void register() throws JMException {
+        // Given
+        GitVersioningStatistics givenStatistics = new GitVersioningStatistics();
+        givenStatistics.gitRepoData.record(TimeUnit.MILLISECONDS.toNanos(3));
+        givenStatistics.pomWrite.record(TimeUnit.MILLISECONDS.toNanos(5000));
+        givenStatistics.gitVersionCache.setSize(() -> 2);
+        givenStatistics.gitVersionCache.hit();
+        givenStatistics.gitVersionCache.miss();
+        givenStatistics.recordVersion(new File("repo/.git"), "1.0.0");
+
+        // When
+        GitVersioningStatistics.register(givenStatistics);
+
+        // Then
+        GitVersioningMXBean mxBean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(GitVersioningMXBean.OBJECT_NAME), GitVersioningMXBean.class);
+
+        GitVersioningMXBean.LatencyStatistics gitRepoDataLatency = mxBean.getGitRepoDataLatency();
+        assertThat(gitRepoDataLatency.getCount()).isEqualTo(1);
+        assertThat(gitRepoDataLatency.getMaxMillis()).isEqualTo(3);
+        assertThat(gitRepoDataLatency.getBucketUpperBoundsMillis()[2]).isEqualTo(4);
+        assertThat(gitRepoDataLatency.getBucketCounts()[2]).isEqualTo(1);
+
+        GitVersioningMXBean.LatencyStatistics pomWriteLatency = mxBean.getPomWriteLatency();
+        assertThat(pomWriteLatency.getCount()).isEqualTo(1);
+        assertThat(pomWriteLatency.getTotalMillis()).isEqualTo(5000);
+        assertThat(pomWriteLatency.getBucketCounts()[13]).isEqualTo(1);
+
+        GitVersioningMXBean.CacheStatistics gitVersionCache = mxBean.getGitVersionCache();
+        assertThat(gitVersionCache.getSize()).isEqualTo(2);
+        assertThat(gitVersionCache.getHitRatio()).isEqualTo(0.5);
+
+        assertThat(mxBean.getLastVersions()).containsOnly(entry(new File("repo/.git").getPath(), "1.0.0"));
+    }
+}
@@ -0,0 +1,127 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class GuardedPatternTest {
+
+    @Test
+    void matches_sameAsJavaRegex() {
+        // Given
+        String[] givenPatterns = {
+                ".*", "master", "(master|develop)", "feature/(.+)", "release/(?<version>.*)", "v(\\d+)\\.(\\d+)\\.(\\d+)",
+                "v?([0-9]+(?:\\.[0-9]+){1,2})(-[a-z]+)?", "[^/]+/[\\w.-]+", "(a|ab)(c|bcd)(d*)", "x{2,3}y{0,}z{2}",
+                "(.*)*-(.*)", "(a*)*b", "(a*?)(a+?)", "^pr-\\d+$", "[a-z&]+", "[-a]+", "[a-]+", "\\Qa.b\\E"
+        };
+        String[] givenTexts = {
+                "", "master", "develop", "feature/foo", "feature/", "release/1.2.3", "v1.22.333", "1.2", "v1.2-rc",
+                "abcd", "abcdd", "xxyzz", "xxxzz", "a-b-c", "aaab", "aaaa", "pr-12", "pr-12\n", "a&b", "a-a", "a.b"
+        };
+
+        for (String pattern : givenPatterns) {
+            GuardedPattern guardedPattern = GuardedPattern.compile(pattern);
+            for (String text : givenTexts) {
+                // When
+                boolean matches = guardedPattern.matches(text);
+                Map<String, String> groupValues = guardedPattern.findGroupValues(text);
+
+                // Then
+                assertThat(matches).as(pattern + " matches " + text).isEqualTo(text.matches(pattern));
+                assertThat(groupValues).as(pattern + " find " + text).isEqualTo(javaRegexGroupValues(pattern, text));
+            }
+        }
+    }
+
+    @Test
+    void compile_linearMatching() {
+        for (String pattern : asList(".*", "feature/(.+)", "(?<name>x)|y", "(.*)*-(.*)", "[a-z\\d-]{1,3}?")) {
+            assertThat(GuardedPattern.compile(pattern).isLinear()).as(pattern).isTrue();
+        }
+        for (String pattern : asList("(a)\\1", "(?=a)a", "(?i)a", "a++", "[a[b]]", "\\bv")) {
+            assertThat(GuardedPattern.compile(pattern).isLinear()).as(pattern).isFalse();
+        }
+    }
+
+    @Test
+    void matches_nestedQuantifiers() {
+        // Given
+        GuardedPattern givenPattern = GuardedPattern.compile("(.*)*-(.*)");
+        StringBuilder givenText = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            givenText.append('a');
+        }
+
+        // When
+        boolean matches = givenPattern.matches(givenText.toString());
+
+        // Then
+        assertThat(matches).isFalse();
+    }
+
+    @Test
+    void findGroupValues_namedGroups() {
+        // Given
+        GuardedPattern givenPattern = GuardedPattern.compile("release/(?<major>\\d+)\\.(?<minor>\\d+)");
+
+        // When
+        Map<String, String> groupValues = givenPattern.findGroupValues("release/1.2");
+
+        // Then
+        assertThat(groupValues).containsOnly(
+                entry("0", "release/1.2"),
+                entry("1", "1"),
+                entry("2", "2"),
+                entry("major", "1"),
+                entry("minor", "2"));
+    }
+
+    @Test
+    void findGroupValues_fallback() {
+        // Given
+        GuardedPattern givenPattern = GuardedPattern.compile("(?<char>.)\\k<char>");
+
+        // When
+        Map<String, String> groupValues = givenPattern.findGroupValues("abba");
+
+        // Then
+        assertThat(groupValues).containsOnly(
+                entry("0", "bb"),
+                entry("1", "b"),
+                entry("char", "b"));
+    }
+
+    @Test
+    void matches_fallbackStepBudgetExceeded() {
+        // Given
+        GuardedPattern givenPattern = GuardedPattern.compile("(a|aa)+\\1b");
+
+        // When
+        // Then
+        assertThatThrownBy(() -> givenPattern.matches("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeded matching step budget");
+    }
+
+    private static Map<String, String> javaRegexGroupValues(String regex, String text) {
+        Map<String, String> result = new HashMap<>();
+        Matcher matcher = Pattern.compile(regex).matcher(text);
+        if (matcher.find()) {
+            for (int i = 0; i <= matcher.groupCount(); i++) {
+                result.put(String.valueOf(i), matcher.group(i));
+            }
+            if (regex.contains("(?<version>")) {
+                result.put("version", matcher.group("version"));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelUtilTest {
+
+    @Test
+    void writeModel_canonicalBytes() throws IOException {
+        // Given
+        Model givenModel = model("ISO-8859-1", "gamma", "alpha", "beta");
+        File givenPomFile = File.createTempFile("pom", ".xml");
+        try {
+            // When
+            ModelUtil.writeModel(givenModel, givenPomFile);
+
+            // Then
+            assertThat(Files.readAllBytes(givenPomFile.toPath())).isEqualTo((""
+                    + "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<project xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\""
+                    + " xmlns=\"http://maven.apache.org/POM/4.0.0\"\n"
+                    + "    xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n"
+                    + "  <modelVersion>4.0.0</modelVersion>\n"
+                    + "  <groupId>group</groupId>\n"
+                    + "  <artifactId>artifact</artifactId>\n"
+                    + "  <version>1.0.0</version>\n"
+                    + "  <name>Grüße</name>\n"
+                    + "  <properties>\n"
+                    + "    <alpha>alpha-value</alpha>\n"
+                    + "    <beta>beta-value</beta>\n"
+                    + "    <gamma>gamma-value</gamma>\n"
+                    + "  </properties>\n"
+                    + "  <profiles>\n"
+                    + "    <profile>\n"
+                    + "      <id>profile</id>\n"
+                    + "      <properties>\n"
+                    + "        <alpha>alpha-value</alpha>\n"
+                    + "        <beta>beta-value</beta>\n"
+                    + "        <gamma>gamma-value</gamma>\n"
+                    + "      </properties>\n"
+                    + "    </profile>\n"
+                    + "  </profiles>\n"
+                    + "</project>\n").getBytes(StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(givenPomFile.toPath());
+        }
+    }
+
+    @Test
+    void writeModel_readModel() throws IOException {
+        // Given
+        Model givenModel = model("UTF-8", "alpha", "beta");
+        File givenPomFile = File.createTempFile("pom", ".xml");
+        try {
+            // When
+            ModelUtil.writeModel(givenModel, givenPomFile);
+            Model model = ModelUtil.readModel(givenPomFile);
+
+            // Then
+            assertThat(model.getName()).isEqualTo("Grüße");
+            assertThat(model.getProperties()).containsOnlyKeys("alpha", "beta");
+            assertThat(model.getProfiles().get(0).getProperties()).containsOnlyKeys("alpha", "beta");
+        } finally {
+            Files.delete(givenPomFile.toPath());
+        }
+    }
+
+    private static Model model(String modelEncoding, String... propertyKeys) {
+        Model model = new Model();
+        model.setModelEncoding(modelEncoding);
+        model.setModelVersion("4.0.0");
+        model.setGroupId("group");
+        model.setArtifactId("artifact");
+        model.setVersion("1.0.0");
+        model.setName("Grüße");
+
+        Properties properties = new Properties();
+        Profile profile = new Profile();
+        profile.setId("profile");
+        for (String propertyKey : propertyKeys) {
+            properties.setProperty(propertyKey, propertyKey + "-value");
+            profile.addProperty(propertyKey, propertyKey + "-value");
+        }
+        model.setProperties(properties);
+        model.addProfile(profile);
+        return model;
+    }
+}
@@ -0,0 +1,80 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PomStreamReaderTest {
+
+    @Test
+    void readGAV() throws IOException {
+        // Given
+        File pomFile = writePom("<project>"
+                + "<modelVersion>4.0.0</modelVersion>"
+                + "<groupId>group</groupId>"
+                + "<artifactId>artifact</artifactId>"
+                + "<properties><version>property</version></properties>"
+                + "<version>version</version>"
+                + "</project>");
+
+        // When
+        GAV gav = PomStreamReader.readGAV(pomFile);
+
+        // Then
+        assertThat(gav.getGroupId()).isEqualTo("group");
+        assertThat(gav.getArtifactId()).isEqualTo("artifact");
+        assertThat(gav.getVersion()).isEqualTo("version");
+    }
+
+    @Test
+    void readGAV_withParent_withInheritance() throws IOException {
+        // Given
+        File pomFile = writePom("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<parent>"
+                + "<groupId>parentGroup</groupId>"
+                + "<artifactId>parentArtifact</artifactId>"
+                + "<version>parentVersion</version>"
+                + "</parent>"
+                + "<artifactId>artifact</artifactId>"
+                + "<dependencies><dependency><version>dependencyVersion</version></dependency></dependencies>"
+                + "</project>");
+
+        // When
+        GAV gav = PomStreamReader.readGAV(pomFile);
+
+        // Then
+        assertThat(gav.getGroupId()).isEqualTo("parentGroup");
+        assertThat(gav.getArtifactId()).isEqualTo("artifact");
+        assertThat(gav.getVersion()).isEqualTo("parentVersion");
+    }
+
+    @Test
+    void readModules() throws IOException {
+        // Given
+        File pomFile = writePom("<project>"
+                + "<artifactId>artifact</artifactId>"
+                + "<modules><module>api</module><module>logic</module></modules>"
+                + "<build><plugins><plugin><modules><module>plugin</module></modules></plugin></plugins></build>"
+                + "<profiles><profile><modules><module>extra</module></modules></profile></profiles>"
+                + "</project>");
+
+        // When
+        List<String> modules = PomStreamReader.readModules(pomFile);
+
+        // Then
+        assertThat(modules).containsExactly("api", "logic", "extra");
+    }
+
+    private static File writePom(String content) throws IOException {
+        File pomFile = Files.createTempFile("pom", ".xml").toFile();
+        pomFile.deleteOnExit();
+        Files.write(pomFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return pomFile;
+    }
+}
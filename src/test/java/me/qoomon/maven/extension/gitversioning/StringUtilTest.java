@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 class StringUtilTest {
@@ -24,6 +25,20 @@ class StringUtilTest {
         assertThat(outputText).isEqualTo("fairytale");
     }
 
+    @Test
+    void substituteText_unknownPlaceholder() {
+        // Given
+        String givenText = "${type}tale${suffix}";
+        Map<String, String> givenSubstitutionMap = new HashMap<>();
+        givenSubstitutionMap.put("type", "fairy");
+
+        // When
+        // Then
+        assertThatThrownBy(() -> StringUtil.substituteText(givenText, givenSubstitutionMap))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("unknown placeholder '${suffix}' in version format '${type}tale${suffix}'");
+    }
+
     @Test
     void removePrefix_removeStringFromStart() {
         // Given
@@ -113,4 +128,16 @@ class StringUtilTest {
         assertThat(valueMap).contains(entry("0", givenText), entry("1", "one"), entry("2", "two three"), entry("3", "three"));
         assertThat(valueMap).contains(entry("first", "one"), entry("second", "two three"), entry("third", "three"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void sha1() {
+        // Given
+        String givenValue = "abc";
+
+        // When
+        String hash = StringUtil.sha1(givenValue);
+
+        // Then
+        assertThat(hash).isEqualTo("a9993e364706816aba3e25717850c26c9cd0d89d");
+    }
+}
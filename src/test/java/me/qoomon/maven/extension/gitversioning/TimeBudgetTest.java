@@ -0,0 +1,111 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeBudgetTest {
+
+    @Test
+    void run_unlimited() throws IOException {
+        // Given
+        TimeBudget givenTimeBudget = TimeBudget.start(0);
+        Thread callingThread = Thread.currentThread();
+
+        // When
+        Thread phaseThread = givenTimeBudget.run("phase", Thread::currentThread, null);
+
+        // Then
+        assertThat(phaseThread).isSameAs(callingThread);
+        assertThat(givenTimeBudget.isExceeded()).isFalse();
+    }
+
+    @Test
+    void run_withinBudget() throws IOException {
+        // Given
+        TimeBudget givenTimeBudget = TimeBudget.start(60_000);
+
+        // When
+        String result = givenTimeBudget.run("phase", () -> "result", "fallback");
+
+        // Then
+        assertThat(result).isEqualTo("result");
+        assertThat(givenTimeBudget.isExceeded()).isFalse();
+        assertThat(givenTimeBudget.toString()).startsWith("phase ");
+    }
+
+    @Test
+    void run_exceedingBudget() throws Exception {
+        // Given
+        TimeBudget givenTimeBudget = TimeBudget.start(100);
+        CountDownLatch phaseReleased = new CountDownLatch(1);
+        CountDownLatch phaseDone = new CountDownLatch(1);
+
+        // When
+        long startNanos = System.nanoTime();
+        String result = givenTimeBudget.run("slow", () -> {
+            phaseReleased.await();
+            phaseDone.countDown();
+            return "result";
+        }, "fallback");
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        String skippedResult = givenTimeBudget.run("next", () -> "result", "fallback");
+
+        // Then
+        assertThat(result).isEqualTo("fallback");
+        assertThat(skippedResult).isEqualTo("fallback");
+        assertThat(durationMillis).isLessThan(10_000);
+        assertThat(givenTimeBudget.isExceeded()).isTrue();
+        assertThat(givenTimeBudget.toString()).contains("slow abandoned after").contains("next skipped");
+        // abandoned phase is not interrupted
+        phaseReleased.countDown();
+        assertThat(phaseDone.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void run_exceedingBudget_allPhaseThreadsBusy() throws Exception {
+        // Given
+        CountDownLatch phasesReleased = new CountDownLatch(1);
+        AtomicInteger startedPhases = new AtomicInteger();
+        for (int i = 0; i < TimeBudget.PHASE_THREAD_COUNT; i++) {
+            TimeBudget.start(50).run("slow", () -> {
+                startedPhases.incrementAndGet();
+                phasesReleased.await();
+                return "result";
+            }, "fallback");
+        }
+        TimeBudget givenTimeBudget = TimeBudget.start(50);
+
+        // When
+        String result = givenTimeBudget.run("queued", () -> {
+            startedPhases.incrementAndGet();
+            return "result";
+        }, "fallback");
+        phasesReleased.countDown();
+
+        // Then
+        assertThat(result).isEqualTo("fallback");
+        assertThat(givenTimeBudget.toString()).contains("queued abandoned after");
+        // abandoned phase did not start, no thread beyond the bound was created
+        Thread.sleep(100);
+        assertThat(startedPhases.get()).isEqualTo(TimeBudget.PHASE_THREAD_COUNT);
+    }
+
+    @Test
+    void run_exception() {
+        // Given
+        TimeBudget givenTimeBudget = TimeBudget.start(60_000);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> givenTimeBudget.run("phase", () -> {
+            throw new IOException("failure");
+        }, null)).isInstanceOf(IOException.class).hasMessage("failure");
+    }
+}
@@ -0,0 +1,94 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionCacheTest {
+
+    private File cacheDirectory;
+
+    @BeforeEach
+    void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("git-versioning-cache").toFile();
+    }
+
+    @AfterEach
+    void deleteCacheDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void get_sameKey() throws IOException {
+        // Given
+        GAV givenGav = new GAV("group", "artifact", "1.0.0-SNAPSHOT");
+        GAVGit givenGavGit = new GAVGit("group", "artifact", "feature-x-SNAPSHOT", "0123456789", "branch", "feature-x");
+        new VersionCache(cacheDirectory, "key", 10).put(givenGav, givenGavGit);
+
+        // When
+        GAVGit gavGit = new VersionCache(cacheDirectory, "key", 10).get(givenGav);
+
+        // Then
+        assertThat(gavGit).isNotNull();
+        assertThat(gavGit.getGroupId()).isEqualTo("group");
+        assertThat(gavGit.getArtifactId()).isEqualTo("artifact");
+        assertThat(gavGit.getVersion()).isEqualTo("feature-x-SNAPSHOT");
+        assertThat(gavGit.getCommit()).isEqualTo("0123456789");
+        assertThat(gavGit.getCommitRefType()).isEqualTo("branch");
+        assertThat(gavGit.getCommitRefName()).isEqualTo("feature-x");
+    }
+
+    @Test
+    void get_otherKeyOrVersion() throws IOException {
+        // Given
+        GAV givenGav = new GAV("group", "artifact", "1.0.0-SNAPSHOT");
+        GAVGit givenGavGit = new GAVGit("group", "artifact", "feature-x-SNAPSHOT", "0123456789", "branch", "feature-x");
+        new VersionCache(cacheDirectory, "key", 10).put(givenGav, givenGavGit);
+
+        // When
+        GAVGit otherKeyGavGit = new VersionCache(cacheDirectory, "otherKey", 10).get(givenGav);
+        GAVGit otherVersionGavGit = new VersionCache(cacheDirectory, "key", 10).get(new GAV("group", "artifact", "2.0.0-SNAPSHOT"));
+
+        // Then
+        assertThat(otherKeyGavGit).isNull();
+        assertThat(otherVersionGavGit).isNull();
+    }
+
+    @Test
+    void cleanup_removesLeastRecentlyUsedEntries() throws IOException {
+        // Given
+        VersionCache givenCache = new VersionCache(cacheDirectory, "key", 2);
+        GAV[] givenGavs = new GAV[3];
+        for (int i = 0; i < givenGavs.length; i++) {
+            givenGavs[i] = new GAV("group", "artifact" + i, "1.0.0");
+            givenCache.put(givenGavs[i], new GAVGit("group", "artifact" + i, "1.0.0", "0123456789", "tag", "v1.0.0"));
+        }
+        File[] givenEntryFiles = cacheDirectory.listFiles();
+        assertThat(givenEntryFiles).hasSize(3);
+        for (File entryFile : givenEntryFiles) {
+            assertThat(entryFile.setLastModified(System.currentTimeMillis() - 60_000)).isTrue();
+        }
+        givenCache.get(givenGavs[0]);
+        givenCache.get(givenGavs[2]);
+
+        // When
+        givenCache.cleanup();
+
+        // Then
+        assertThat(cacheDirectory.listFiles()).hasSize(2);
+        assertThat(givenCache.get(givenGavs[0])).isNotNull();
+        assertThat(givenCache.get(givenGavs[1])).isNull();
+        assertThat(givenCache.get(givenGavs[2])).isNotNull();
+    }
+}
@@ -0,0 +1,61 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionLockTest {
+
+    private File projectDirectory;
+
+    @BeforeEach
+    void createProjectDirectory() throws IOException {
+        projectDirectory = Files.createTempDirectory("git-versioning-lock").toFile();
+    }
+
+    @AfterEach
+    void deleteProjectDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void key_containsExtensionVersion() {
+        // When
+        String key = VersionLock.key("0123456789", "master", emptyList(), "hash");
+
+        // Then
+        assertThat(key).endsWith(":" + BuildProperties.projectVersion());
+    }
+
+    @Test
+    void write_replacesLockFile() throws IOException {
+        // Given
+        File givenLockFile = new File(projectDirectory, VersionLock.FILE_PATH);
+        GAV givenGav = new GAV("group", "artifact", "1.0.0-SNAPSHOT");
+        new VersionLock("outdated").write(givenLockFile);
+        VersionLock givenLock = new VersionLock("key");
+        givenLock.put(givenGav, new GAVGit("group", "artifact", "master-SNAPSHOT", "0123456789", "branch", "master"));
+
+        // When
+        givenLock.write(givenLockFile);
+
+        // Then
+        VersionLock lock = VersionLock.read(givenLockFile);
+        assertThat(lock).isNotNull();
+        assertThat(lock.getKey()).isEqualTo("key");
+        assertThat(lock.get(givenGav).getVersion()).isEqualTo("master-SNAPSHOT");
+        assertThat(givenLockFile.getParentFile().list()).containsExactly(givenLockFile.getName());
+    }
+}
@@ -31,20 +31,20 @@ public class VersioningMultiModuleProjectIT {
         verifier.verifyErrorFreeLog();
         {
             verifier.verifyTextInLog("Building main " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir, VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir, "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir, "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
         {
             verifier.verifyTextInLog("Building api " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir + "/api", VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir + "/api", "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir + "/api", PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir + "/api", "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
         {
             verifier.verifyTextInLog("Building logic " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir + "/logic", VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir + "/logic", "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir + "/logic", PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir + "/logic", "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
     }
@@ -71,20 +71,20 @@ public class VersioningMultiModuleProjectIT {
         verifier.verifyErrorFreeLog();
         {
             verifier.verifyTextInLog("Building main " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir, VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir, "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir, "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
         {
             verifier.verifyTextInLog("Building api " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir + "/api", VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir + "/api", "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir + "/api", PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir + "/api", "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
         {
             verifier.verifyTextInLog("Building logic " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir + "/logic", VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir + "/logic", "expected" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir + "/logic", PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir + "/logic", "expected" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
     }
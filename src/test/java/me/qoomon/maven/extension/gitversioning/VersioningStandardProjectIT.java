@@ -5,6 +5,7 @@ import org.apache.maven.it.util.ResourceExtractor;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,8 +32,8 @@ public class VersioningStandardProjectIT {
         verifier.verifyErrorFreeLog();
         {
             verifier.verifyTextInLog("Building main " + providedCommit);
-            File actualGitVersionedPomFile = new File(baseDir, VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir, "expected-commit" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir, "expected-commit" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
     }
@@ -59,8 +60,8 @@ public class VersioningStandardProjectIT {
         verifier.verifyErrorFreeLog();
         {
             verifier.verifyTextInLog("Building main " + "test-SNAPSHOT");
-            File actualGitVersionedPomFile = new File(baseDir, VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir, "expected-branch" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir, "expected-branch" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
     }
@@ -87,9 +88,36 @@ public class VersioningStandardProjectIT {
         verifier.verifyErrorFreeLog();
         {
             verifier.verifyTextInLog("Building main " + "test");
-            File actualGitVersionedPomFile = new File(baseDir, VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
-            File expectedGitVersionedPomFile = new File(baseDir, "expected-tag" + VersioningPomReplacementMojo.GIT_VERSIONED_POM_FILE_NAME);
+            File actualGitVersionedPomFile = new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
+            File expectedGitVersionedPomFile = new File(baseDir, "expected-tag" + PomReplacement.GIT_VERSIONED_POM_FILE_NAME);
             assertThat(actualGitVersionedPomFile).hasSameContentAs(expectedGitVersionedPomFile);
         }
     }
+
+    @Test
+    public void validate_writesNoGitVersionedPomFile() throws Exception {
+        // Given
+        File baseDir = ResourceExtractor.simpleExtractResources(getClass(), "/testProjects/standardProject");
+        Verifier verifier = new Verifier(baseDir.getAbsolutePath());
+        verifier.executeGoal("clean");
+        verifier.resetStreams();
+        // resources of all tests are extracted to the same directory
+        Files.deleteIfExists(new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME).toPath());
+
+        String providedCommit = "a02162d634f5f5721d0d66d87291c8e5e5d7446c";
+
+        // When
+        verifier.addCliOption("-Dproject.branch=");
+        verifier.addCliOption("-Dproject.tag=");
+        verifier.addCliOption("-Dproject.commit=" + providedCommit);
+        verifier.executeGoal("validate");
+        verifier.resetStreams();
+
+        // Then
+        verifier.verifyErrorFreeLog();
+        {
+            verifier.verifyTextInLog("Building main " + providedCommit);
+            assertThat(new File(baseDir, PomReplacement.GIT_VERSIONED_POM_FILE_NAME)).doesNotExist();
+        }
+    }
 }
\ No newline at end of file
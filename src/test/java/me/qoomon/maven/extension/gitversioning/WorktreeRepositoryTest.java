@@ -0,0 +1,200 @@
+package me.qoomon.maven.extension.gitversioning;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorktreeRepositoryTest {
+
+    private File tempDirectory;
+
+    @BeforeEach
+    void createTempDirectory() throws IOException {
+        tempDirectory = Files.createTempDirectory("git-versioning-worktree").toFile().getCanonicalFile();
+    }
+
+    @AfterEach
+    void deleteTempDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void openRepository_linkedWorktree() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true).call().getName();
+            git.branchCreate().setName("feature/worktree").call();
+            git.tag().setName("v1.0.0").call();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            File givenWorktreeGitDir = addWorktree(mainDirectory, givenWorktreeDirectory, "feature/worktree");
+
+            // When
+            try (Repository repository = GitUtil.openRepository(givenWorktreeDirectory)) {
+
+                // Then
+                assertThat(repository).isInstanceOf(WorktreeRepository.class);
+                assertThat(repository.getWorkTree()).isEqualTo(givenWorktreeDirectory);
+                assertThat(repository.getDirectory()).isEqualTo(new File(mainDirectory, ".git"));
+                assertThat(WorktreeRepository.getWorktreeGitDir(repository)).isEqualTo(givenWorktreeGitDir);
+                assertThat(GitUtil.getHeadBranch(repository)).isEqualTo("feature/worktree");
+                assertThat(GitUtil.getHeadCommit(repository)).isEqualTo(givenCommit);
+                assertThat(GitUtil.getHeadTags(repository)).containsExactly("v1.0.0");
+            }
+            try (Repository repository = GitUtil.openRepository(mainDirectory)) {
+                assertThat(repository).isNotInstanceOf(WorktreeRepository.class);
+                assertThat(GitUtil.getHeadBranch(repository)).isEqualTo("master");
+            }
+        }
+    }
+
+    @Test
+    void openRepository_relativeGitDir() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            git.commit().setMessage("init").setAllowEmpty(true).call();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            File givenWorktreeGitDir = addWorktree(mainDirectory, givenWorktreeDirectory, null);
+            write(new File(givenWorktreeGitDir, "gitdir"), "../../../../worktree/.git");
+
+            // When
+            try (Repository repository = GitUtil.openRepository(givenWorktreeDirectory)) {
+
+                // Then
+                assertThat(repository.getWorkTree().getCanonicalFile()).isEqualTo(givenWorktreeDirectory);
+            }
+        }
+    }
+
+    @Test
+    void openRepository_sharedCommonRepository() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            git.commit().setMessage("init").setAllowEmpty(true).call();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            addWorktree(mainDirectory, givenWorktreeDirectory, null);
+
+            // When
+            try (GitRepositoryCache repositoryCache = new GitRepositoryCache();
+                 Repository worktreeRepository = repositoryCache.openRepository(givenWorktreeDirectory);
+                 Repository mainRepository = repositoryCache.openRepository(mainDirectory)) {
+
+                // Then
+                assertThat(worktreeRepository.getObjectDatabase()).isSameAs(mainRepository.getObjectDatabase());
+                assertThat(repositoryCache.getRefIndex(worktreeRepository)).isSameAs(repositoryCache.getRefIndex(mainRepository));
+            }
+        }
+    }
+
+    @Test
+    void openRepository_sharedAcrossCaches() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            git.commit().setMessage("init").setAllowEmpty(true).call();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            addWorktree(mainDirectory, givenWorktreeDirectory, null);
+            GitRepositoryCache givenMainRepositoryCache = new GitRepositoryCache();
+            Repository givenMainRepository = givenMainRepositoryCache.openRepository(mainDirectory);
+            givenMainRepository.close();
+
+            // When
+            try (GitRepositoryCache worktreeRepositoryCache = new GitRepositoryCache();
+                 Repository worktreeRepository = worktreeRepositoryCache.openRepository(givenWorktreeDirectory)) {
+                givenMainRepositoryCache.close();
+
+                // Then
+                assertThat(worktreeRepository.getObjectDatabase()).isSameAs(givenMainRepository.getObjectDatabase());
+                try (Repository mainRepository = worktreeRepositoryCache.openRepository(mainDirectory)) {
+                    assertThat(mainRepository).isSameAs(givenMainRepository);
+                }
+            }
+            try (GitRepositoryCache repositoryCache = new GitRepositoryCache();
+                 Repository mainRepository = repositoryCache.openRepository(mainDirectory)) {
+                assertThat(mainRepository).isNotSameAs(givenMainRepository);
+            }
+        }
+    }
+
+    @Test
+    void updateRef_linkedWorktree() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            git.commit().setMessage("init").setAllowEmpty(true).call();
+            git.branchCreate().setName("feature").call();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            addWorktree(mainDirectory, givenWorktreeDirectory, "feature");
+
+            try (Repository repository = GitUtil.openRepository(givenWorktreeDirectory)) {
+                // When
+                // Then
+                assertThatThrownBy(() -> repository.updateRef(Constants.HEAD)).isInstanceOf(UnsupportedOperationException.class);
+                assertThatThrownBy(() -> repository.renameRef("refs/heads/feature", "refs/heads/other")).isInstanceOf(UnsupportedOperationException.class);
+                assertThat(GitUtil.getHeadBranch(repository)).isEqualTo("feature");
+            }
+        }
+    }
+
+    @Test
+    void openRepository_detachedLinkedWorktree() throws Exception {
+        File mainDirectory = new File(tempDirectory, "main");
+        try (Git git = Git.init().setDirectory(mainDirectory).call()) {
+            // Given
+            String givenCommit = git.commit().setMessage("init").setAllowEmpty(true).call().getName();
+            File givenWorktreeDirectory = new File(tempDirectory, "worktree");
+            addWorktree(mainDirectory, givenWorktreeDirectory, null);
+
+            // When
+            try (Repository repository = GitUtil.openRepository(givenWorktreeDirectory)) {
+
+                // Then
+                assertThat(GitUtil.getHeadBranch(repository)).isNull();
+                assertThat(GitUtil.getHeadCommit(repository)).isEqualTo(givenCommit);
+            }
+        }
+    }
+
+    /**
+     * Same layout as <code>git worktree add</code>, without index.
+     *
+     * @param branch branch to check out or null for detached HEAD
+     * @return worktree git directory
+     */
+    private static File addWorktree(File mainDirectory, File worktreeDirectory, String branch) throws IOException {
+        File worktreeGitDir = new File(mainDirectory, ".git/worktrees/" + worktreeDirectory.getName());
+        assertThat(worktreeGitDir.mkdirs()).isTrue();
+        assertThat(worktreeDirectory.mkdirs()).isTrue();
+        String head;
+        try (Repository repository = Git.open(mainDirectory).getRepository()) {
+            head = branch != null ? "ref: refs/heads/" + branch : repository.resolve("HEAD").getName();
+        }
+        write(new File(worktreeGitDir, "HEAD"), head);
+        write(new File(worktreeGitDir, "commondir"), "../..");
+        write(new File(worktreeGitDir, "gitdir"), new File(worktreeDirectory, ".git").getPath());
+        write(new File(worktreeDirectory, ".git"), "gitdir: " + worktreeGitDir.getPath());
+        return worktreeGitDir;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), (content + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
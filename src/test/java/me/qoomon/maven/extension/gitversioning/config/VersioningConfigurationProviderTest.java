@@ -0,0 +1,102 @@
+package me.qoomon.maven.extension.gitversioning.config;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersioningConfigurationProviderTest {
+
+    private final Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+
+    private File projectDirectory;
+
+    @BeforeEach
+    void createProjectDirectory() throws IOException {
+        projectDirectory = Files.createTempDirectory("git-versioning-config").toFile();
+    }
+
+    @AfterEach
+    void deleteProjectDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void get_defaults() {
+        // When
+        VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                .get(projectDirectory, new Properties());
+
+        // Then
+        assertThat(configuration.isEnabled()).isTrue();
+        assertThat(configuration.isVersionLockEnabled()).isFalse();
+        assertThat(configuration.isStatusSnapshotEnabled()).isFalse();
+        assertThat(configuration.getBranchInferenceRemote()).isEqualTo("origin");
+        assertThat(configuration.getVersionCacheDirectory()).isNull();
+        assertThat(configuration.getVersionCacheSize()).isEqualTo(10000);
+        assertThat(configuration.getCommitAbbreviationLength()).isEqualTo(7);
+        assertThat(configuration.getTimeBudget()).isEqualTo(0);
+    }
+
+    @Test
+    void get_optionsOfConfigFile() throws IOException {
+        // Given
+        writeConfigFile("<configuration>"
+                + "<branches/><tags/><commit><versionFormat>${commit}</versionFormat></commit>"
+                + "<lockFile>true</lockFile>"
+                + "<inferBranchRemote>upstream</inferBranchRemote>"
+                + "<cacheDirectory>cache</cacheDirectory>"
+                + "<cacheSize>100</cacheSize>"
+                + "<commitAbbrevLength>10</commitAbbrevLength>"
+                + "<timeBudget>5000</timeBudget>"
+                + "</configuration>");
+        Properties givenUserProperties = new Properties();
+        givenUserProperties.setProperty("gitVersioning.timeBudget", "1000");
+
+        // When
+        VersioningConfiguration configuration = new VersioningConfigurationProvider(logger, null)
+                .get(projectDirectory, givenUserProperties);
+
+        // Then
+        assertThat(configuration.isVersionLockEnabled()).isTrue();
+        assertThat(configuration.getBranchInferenceRemote()).isEqualTo("upstream");
+        assertThat(configuration.getVersionCacheDirectory()).isEqualTo(new File(projectDirectory, "cache"));
+        assertThat(configuration.getVersionCacheSize()).isEqualTo(100);
+        assertThat(configuration.getCommitAbbreviationLength()).isEqualTo(10);
+        assertThat(configuration.getTimeBudget()).isEqualTo(1000);
+    }
+
+    @Test
+    void get_invalidOption() {
+        // Given
+        Properties givenUserProperties = new Properties();
+        givenUserProperties.setProperty("gitVersioning.cacheSize", "many");
+
+        // When
+        // Then
+        assertThatThrownBy(() -> new VersioningConfigurationProvider(logger, null).get(projectDirectory, givenUserProperties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("invalid gitVersioning.cacheSize 'many'");
+    }
+
+    private void writeConfigFile(String content) throws IOException {
+        File configFile = new File(projectDirectory, ".mvn/maven-git-versioning-extension.xml");
+        Files.createDirectories(configFile.getParentFile().toPath());
+        Files.write(configFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
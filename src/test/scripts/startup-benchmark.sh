@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Compares cold maven startup of a git versioned project with and without a class data sharing archive.
+#
+# usage: startup-benchmark.sh PROJECT_DIR [RUNS] [MAVEN_ARGS...]
+#   PROJECT_DIR  project using the extension, the extension has to be installed in the local repository
+#   RUNS         runs per variant, default 10
+#   MAVEN_ARGS   maven goals and options, default 'validate'
+#
+# requires JDK 13+ (dynamic CDS archives)
+set -euo pipefail
+
+PROJECT_DIR="$(cd "${1:?usage: startup-benchmark.sh PROJECT_DIR [RUNS] [MAVEN_ARGS...]}" && pwd)"
+RUNS="${2:-10}"
+shift $(( $# < 2 ? $# : 2 ))
+MAVEN_ARGS=("${@:-validate}")
+
+ARCHIVE_FILE="$(mktemp -d)/git-versioning.jsa"
+trap 'rm -rf "$(dirname "$ARCHIVE_FILE")"' EXIT
+
+cd "$PROJECT_DIR"
+
+run_millis() {
+  local start end
+  start=$(date +%s%N)
+  MAVEN_OPTS="$1" mvn -B -o -q "${@:2}" "${MAVEN_ARGS[@]}" > /dev/null
+  end=$(date +%s%N)
+  echo $(( (end - start) / 1000000 ))
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+echo "create archive $ARCHIVE_FILE"
+MAVEN_OPTS="-XX:ArchiveClassesAtExit=$ARCHIVE_FILE -Xlog:cds=off" mvn -B -o -q "${MAVEN_ARGS[@]}" > /dev/null
+
+disabled=(); plain=(); shared=()
+for (( run = 1; run <= RUNS; run++ )); do
+  disabled+=("$(run_millis "" -DgitVersioning=false)")
+  plain+=("$(run_millis "")")
+  shared+=("$(run_millis "-XX:SharedArchiveFile=$ARCHIVE_FILE")")
+  echo "run $run/$RUNS - extension disabled: ${disabled[-1]}ms, no archive: ${plain[-1]}ms, archive: ${shared[-1]}ms"
+done
+
+echo
+echo "median of $RUNS runs"
+echo "  extension disabled: $(printf '%s\n' "${disabled[@]}" | median)ms"
+echo "  no archive:         $(printf '%s\n' "${plain[@]}" | median)ms"
+echo "  archive:            $(printf '%s\n' "${shared[@]}" | median)ms"